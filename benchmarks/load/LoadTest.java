@@ -0,0 +1,265 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator: each client thread sends its next request as soon as the
+ * previous one answers, so offered load rises with the concurrency level.
+ * <p>
+ * Run with a plain JDK against a started application, e.g.
+ * <pre>
+ * java benchmarks/load/LoadTest.java --url=http://localhost:8080 --concurrency=10,50,200,400
+ * </pre>
+ * Options: {@code --url}, {@code --path} (default {@code /api/tasks?limit=20}), {@code --concurrency}
+ * (comma separated), {@code --warmup} and {@code --duration} in seconds per level, {@code --seed}
+ * (tasks to create through the batch endpoint first, default 0), {@code --revalidate} (send the
+ * ETag of a first response as If-None-Match, like a polling client), {@code --body} (POST this JSON
+ * instead of sending a GET), {@code --read-rate} (KB/s at which each client reads response bodies, to act
+ * like a client on a slow network; default 0, as fast as possible).
+ * <p>
+ * Responses shed by admission control ({@code 503}) are counted in the {@code shed} column and left
+ * out of the latency and throughput columns, which therefore describe the requests actually served.
+ * The client thread then waits for the response's {@code Retry-After}, as a well-behaved client would.
+ * <p>
+ * The {@code alloc KB} column is the server's {@code jvm.gc.memory.allocated} growth during the level
+ * divided by the requests served. The counter only moves at young collections, so treat it as an
+ * estimate that gets better with longer runs. The {@code threads} column is the most live threads the
+ * server reported during the level, sampled every second from {@code jvm.threads.live}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+            "url", "http://localhost:8080",
+            "path", "/api/tasks?limit=20",
+            "concurrency", "10,50,200,400",
+            "warmup", "10",
+            "duration", "30",
+            "seed", "0",
+            "revalidate", "false",
+            "body", "",
+            "read-rate", "0"));
+        for (String arg : args) {
+            String[] keyValue = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(keyValue[0], keyValue.length == 2 ? keyValue[1] : "true");
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        String url = options.get("url");
+
+        int seed = Integer.parseInt(options.get("seed"));
+        if (seed > 0) {
+            seed(client, url, seed);
+        }
+
+        URI target = URI.create(url + options.get("path"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.get("warmup")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.get("duration")));
+        int readRate = Integer.parseInt(options.get("read-rate"));
+
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(60));
+        String body = options.get("body");
+        if (body.isEmpty()) {
+            requestBuilder.GET();
+        } else {
+            requestBuilder.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+        if (Boolean.parseBoolean(options.get("revalidate"))) {
+            HttpResponse<Void> first = client.send(requestBuilder.build(), HttpResponse.BodyHandlers.discarding());
+            first.headers().firstValue("ETag").ifPresent(eTag -> requestBuilder.header("If-None-Match", eTag));
+        }
+        HttpRequest request = requestBuilder.build();
+
+        System.out.printf("%s %s%s, %ds per level after %ds warm-up%s%n", request.method(), target,
+            request.headers().firstValue("If-None-Match").map(eTag -> " (If-None-Match " + eTag + ")").orElse(""),
+            duration.toSeconds(), warmup.toSeconds(), readRate > 0 ? ", bodies read at " + readRate + " KB/s" : "");
+        System.out.printf("%11s %10s %9s %9s %9s %9s %9s %9s %7s %8s%n",
+            "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "alloc KB", "shed", "errors", "threads");
+        for (String level : options.get("concurrency").split(",")) {
+            int concurrency = Integer.parseInt(level.trim());
+            run(client, request, concurrency, warmup, readRate, false);
+            double allocatedBefore = allocatedBytes(client, url);
+            ThreadSampler threads = new ThreadSampler(client, url);
+            threads.start();
+            Result result = run(client, request, concurrency, duration, readRate, true);
+            threads.interrupt();
+            threads.join();
+            double allocated = allocatedBytes(client, url) - allocatedBefore;
+            System.out.printf("%11d %10d %9.0f %9.1f %9.1f %9.1f %9.0f %9d %7d %8.0f%n",
+                concurrency, result.latencies.length, result.latencies.length / (double) duration.toSeconds(),
+                result.percentile(50), result.percentile(99), result.percentile(100),
+                allocated / Math.max(1, result.latencies.length) / 1024, result.shed, result.errors, threads.max);
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, Duration duration,
+                              int readRate, boolean record) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong shed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perThread = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            long[][] samples = {new long[1024]};
+            int[] count = {0};
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<?> response = readRate > 0
+                            ? readSlowly(client.send(request, HttpResponse.BodyHandlers.ofInputStream()), readRate)
+                            : client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 503) {
+                            shed.incrementAndGet();
+                            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(0);
+                            Thread.sleep(Math.max(0, Math.min(retryAfter * 1000, (deadline - System.nanoTime()) / 1_000_000)));
+                            continue;
+                        }
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (record) {
+                        if (count[0] == samples[0].length) {
+                            samples[0] = Arrays.copyOf(samples[0], count[0] * 2);
+                        }
+                        samples[0][count[0]++] = System.nanoTime() - start;
+                    }
+                }
+                synchronized (perThread) {
+                    perThread.add(Arrays.copyOf(samples[0], count[0]));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long[] latencies = perThread.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(latencies, shed.get(), errors.get());
+    }
+
+    // Takes the body in 1 KB reads, pausing so that it never runs ahead of the rate. The client stops
+    // reading from the socket while it pauses, so the server sees a slow network, not a slow request.
+    private static HttpResponse<InputStream> readSlowly(HttpResponse<InputStream> response, int kilobytesPerSecond)
+            throws IOException, InterruptedException {
+        try (InputStream body = response.body()) {
+            byte[] buffer = new byte[1024];
+            long start = System.nanoTime();
+            long read = 0;
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                read += n;
+                long dueNanos = read * 1_000_000_000L / (kilobytesPerSecond * 1024L);
+                long aheadMillis = (dueNanos - (System.nanoTime() - start)) / 1_000_000;
+                if (aheadMillis > 0) {
+                    Thread.sleep(aheadMillis);
+                }
+            }
+        }
+        return response;
+    }
+
+    // NaN when the metrics endpoint is not reachable; the latency columns are still valid
+    private static double allocatedBytes(HttpClient client, String url) {
+        return metric(client, url, "jvm.gc.memory.allocated");
+    }
+
+    private static double metric(HttpClient client, String url, String name) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/actuator/metrics/" + name)).build();
+            String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)").matcher(body);
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Double.NaN;
+        } catch (Exception ex) {
+            return Double.NaN;
+        }
+    }
+
+    // Most live server threads seen until interrupted; NaN if the metric could not be read
+    private static final class ThreadSampler extends Thread {
+
+        private final HttpClient client;
+        private final String url;
+        private volatile double max = Double.NaN;
+
+        ThreadSampler(HttpClient client, String url) {
+            this.client = client;
+            this.url = url;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                double live = metric(client, url, "jvm.threads.live");
+                if (!Double.isNaN(live)) {
+                    max = Double.isNaN(max) ? live : Math.max(max, live);
+                }
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void seed(HttpClient client, String url, int tasks) throws Exception {
+        String[] statuses = {"PENDING", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+        String[] priorities = {"LOW", "MEDIUM", "HIGH"};
+        for (int offset = 0; offset < tasks; offset += 1000) {
+            StringJoiner batch = new StringJoiner(",", "[", "]");
+            for (int i = offset; i < Math.min(tasks, offset + 1000); i++) {
+                batch.add(String.format(
+                    "{\"title\":\"Load task %d\",\"description\":\"Seeded by LoadTest\",\"dueDate\":\"%s\","
+                        + "\"status\":\"%s\",\"priority\":\"%s\"}",
+                    i, LocalDate.now().plusDays(i % 60 - 30), statuses[i % statuses.length], priorities[i % priorities.length]));
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/tasks/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(batch.toString()))
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+        }
+        System.out.printf("Seeded %d tasks%n", tasks);
+    }
+
+    private record Result(long[] latencies, long shed, long errors) {
+
+        double percentile(int percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
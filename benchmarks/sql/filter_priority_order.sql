@@ -0,0 +1,47 @@
+-- Status filter ordered by priority: first page and a deep continuation page.
+--
+-- Run against a throwaway database that Flyway has migrated (V4 or later), e.g.
+--   psql -d tasklist_bench -v rows=1000000 -f benchmarks/sql/filter_priority_order.sql
+-- Both plans should read about limit rows from idx_tasks_status_priority_rank_created_at_id with no
+-- Sort over the table; the continuation only sorts the 2 * limit rows its two seeks return.
+
+\if :{?rows}
+\else
+    \set rows 1000000
+\endif
+
+BEGIN;
+
+INSERT INTO tasks (title, description, due_date, status, priority_rank, created_at)
+SELECT
+    'Task ' || g,
+    NULL,
+    current_date + (floor(random() * 60)::int - 30),
+    (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'])[1 + floor(random() * 4)::int],
+    1 + floor(random() * 3)::int,
+    now() - random() * interval '365 days'
+FROM generate_series(1, :rows) g;
+
+ANALYZE tasks;
+
+-- First page
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t WHERE t.status = 'PENDING'
+ORDER BY t.priority_rank DESC, t.created_at, t.id LIMIT 51;
+
+-- Continuation from deep inside the MEDIUM group, i.e. past every HIGH task
+CREATE TEMP TABLE bench_cursor ON COMMIT DROP AS
+SELECT created_at, id FROM tasks
+WHERE status = 'PENDING' AND priority_rank = 2
+ORDER BY created_at, id OFFSET 50000 LIMIT 1;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+(SELECT t.* FROM tasks t WHERE t.status = 'PENDING' AND t.priority_rank = 2
+    AND (t.created_at, t.id) > ((SELECT created_at FROM bench_cursor), (SELECT id FROM bench_cursor))
+    ORDER BY t.created_at, t.id LIMIT 51)
+UNION ALL
+(SELECT t.* FROM tasks t WHERE t.status = 'PENDING' AND t.priority_rank < 2
+    ORDER BY t.priority_rank DESC, t.created_at, t.id LIMIT 51)
+ORDER BY priority_rank DESC, created_at, id LIMIT 51;
+
+ROLLBACK;
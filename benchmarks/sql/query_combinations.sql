@@ -0,0 +1,108 @@
+-- GET /api/tasks/query: common criteria combinations, first and deep pages, with and without the
+-- V9 composite indexes. The statements have the shape Hibernate generates for TaskSpecifications.
+--
+-- Run against a throwaway database that Flyway has migrated (V9 or later), e.g.
+--   psql -d tasklist_bench -v rows=1000000 -f benchmarks/sql/query_combinations.sql
+-- Every plan is printed twice: first with the V9 indexes, then after dropping them (and restoring
+-- the due_date index they replaced) inside the same transaction.
+
+\if :{?rows}
+\else
+    \set rows 1000000
+\endif
+
+BEGIN;
+
+INSERT INTO tasks (title, description, due_date, status, priority_rank, created_at)
+SELECT
+    'Task ' || g,
+    NULL,
+    CASE WHEN random() < 0.1 THEN NULL ELSE current_date + (floor(random() * 365)::int - 180) END,
+    (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'])[1 + floor(random() * 4)::int],
+    1 + floor(random() * 3)::int,
+    now() - random() * interval '365 days'
+FROM generate_series(1, :rows) g;
+
+ANALYZE tasks;
+
+-- Cursors deep inside each result, 50,000 rows in
+CREATE TEMP TABLE bench_status_cursor ON COMMIT DROP AS
+SELECT created_at, id FROM tasks WHERE status = 'PENDING'
+ORDER BY created_at, id OFFSET 50000 LIMIT 1;
+
+CREATE TEMP TABLE bench_due_cursor ON COMMIT DROP AS
+SELECT due_date, id FROM tasks WHERE status = 'PENDING' AND due_date IS NOT NULL
+ORDER BY due_date, id OFFSET 50000 LIMIT 1;
+
+-- With the V9 indexes
+-- 1. ?status=PENDING, deep page in default order
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE t.status IN ('PENDING')
+    AND t.created_at >= (SELECT created_at FROM bench_status_cursor)
+    AND (t.created_at > (SELECT created_at FROM bench_status_cursor)
+        OR t.created_at = (SELECT created_at FROM bench_status_cursor) AND t.id > (SELECT id FROM bench_status_cursor))
+ORDER BY t.created_at, t.id FETCH FIRST 51 ROWS ONLY;
+
+-- 2. ?status=PENDING,IN_PROGRESS&dueFrom=..&dueTo=..&sort=dueDate, first page
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE t.status IN ('PENDING', 'IN_PROGRESS')
+    AND t.due_date >= current_date AND t.due_date <= current_date + 30
+ORDER BY t.due_date, t.id FETCH FIRST 51 ROWS ONLY;
+
+-- 3. ?status=PENDING&sort=dueDate, deep page (the dated segment)
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE t.status IN ('PENDING')
+    AND t.due_date >= (SELECT due_date FROM bench_due_cursor)
+    AND (t.due_date > (SELECT due_date FROM bench_due_cursor) OR t.due_date IS NULL
+        OR t.due_date = (SELECT due_date FROM bench_due_cursor) AND t.id > (SELECT id FROM bench_due_cursor))
+ORDER BY t.due_date, t.id FETCH FIRST 51 ROWS ONLY;
+
+-- 4. ?priority=HIGH&dueTo=..&sort=-dueDate, first page
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE t.priority_rank IN (3) AND t.due_date <= current_date
+ORDER BY t.due_date DESC, t.id FETCH FIRST 51 ROWS ONLY;
+
+-- Drop them, restoring the index V9 replaced
+DROP INDEX idx_tasks_status_created_at_id;
+DROP INDEX idx_tasks_status_due_date_id;
+DROP INDEX idx_tasks_priority_rank_due_date_id;
+DROP INDEX idx_tasks_due_date_id;
+CREATE INDEX idx_tasks_due_date ON tasks(due_date);
+
+-- Without the V9 indexes
+-- 1. ?status=PENDING, deep page in default order
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE t.status IN ('PENDING')
+    AND t.created_at >= (SELECT created_at FROM bench_status_cursor)
+    AND (t.created_at > (SELECT created_at FROM bench_status_cursor)
+        OR t.created_at = (SELECT created_at FROM bench_status_cursor) AND t.id > (SELECT id FROM bench_status_cursor))
+ORDER BY t.created_at, t.id FETCH FIRST 51 ROWS ONLY;
+
+-- 2. ?status=PENDING,IN_PROGRESS&dueFrom=..&dueTo=..&sort=dueDate, first page
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE t.status IN ('PENDING', 'IN_PROGRESS')
+    AND t.due_date >= current_date AND t.due_date <= current_date + 30
+ORDER BY t.due_date, t.id FETCH FIRST 51 ROWS ONLY;
+
+-- 3. ?status=PENDING&sort=dueDate, deep page (the dated segment)
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE t.status IN ('PENDING')
+    AND t.due_date >= (SELECT due_date FROM bench_due_cursor)
+    AND (t.due_date > (SELECT due_date FROM bench_due_cursor) OR t.due_date IS NULL
+        OR t.due_date = (SELECT due_date FROM bench_due_cursor) AND t.id > (SELECT id FROM bench_due_cursor))
+ORDER BY t.due_date, t.id FETCH FIRST 51 ROWS ONLY;
+
+-- 4. ?priority=HIGH&dueTo=..&sort=-dueDate, first page
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE t.priority_rank IN (3) AND t.due_date <= current_date
+ORDER BY t.due_date DESC, t.id FETCH FIRST 51 ROWS ONLY;
+
+ROLLBACK;
@@ -0,0 +1,72 @@
+-- Full-text search vs. LIKE on a synthetic tasks table.
+--
+-- Run against a throwaway database that Flyway has migrated (V3 or later), e.g.
+--   psql -d tasklist_bench -v rows=1000000 -f benchmarks/sql/search_fts_vs_like.sql
+-- Everything happens in one transaction that is rolled back at the end.
+
+\if :{?rows}
+\else
+    \set rows 1000000
+\endif
+
+BEGIN;
+
+-- Titles and descriptions are drawn from a 40-word vocabulary; 'zeppelin' appears in roughly
+-- one row in ten thousand so both a common and a rare term can be measured.
+INSERT INTO tasks (title, description, due_date, status, priority)
+SELECT
+    initcap(v.words[1 + floor(random() * 40)::int]) || ' ' || v.words[1 + floor(random() * 40)::int]
+        || CASE WHEN random() < 0.0001 THEN ' zeppelin' ELSE '' END,
+    v.words[1 + floor(random() * 40)::int] || ' ' || v.words[1 + floor(random() * 40)::int] || ' '
+        || v.words[1 + floor(random() * 40)::int] || ' ' || v.words[1 + floor(random() * 40)::int] || ' '
+        || v.words[1 + floor(random() * 40)::int] || ' ' || v.words[1 + floor(random() * 40)::int],
+    current_date + (floor(random() * 60)::int - 30),
+    (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'])[1 + floor(random() * 4)::int],
+    (ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + floor(random() * 3)::int]
+FROM generate_series(1, :rows),
+     (SELECT ARRAY['review', 'deploy', 'invoice', 'customer', 'meeting', 'report', 'budget', 'design',
+                   'release', 'migration', 'database', 'backup', 'server', 'network', 'audit', 'security',
+                   'onboarding', 'training', 'contract', 'vendor', 'roadmap', 'sprint', 'backlog', 'feature',
+                   'bugfix', 'hotfix', 'schema', 'index', 'query', 'cache', 'latency', 'throughput',
+                   'dashboard', 'metrics', 'alerting', 'incident', 'postmortem', 'capacity', 'quota',
+                   'licence'] AS words) v;
+
+ANALYZE tasks;
+
+-- Common term (~15% of rows), first page of 50
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE (t.title LIKE '%' || 'invoice' || '%' OR t.description LIKE '%' || 'invoice' || '%')
+ORDER BY t.created_at, t.id LIMIT 51;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.id AS id, ts_rank(t.search_vector, q) AS rank
+FROM tasks t, websearch_to_tsquery('english', 'invoice') q
+WHERE t.search_vector @@ q AND ts_rank(t.search_vector, q) >= 0
+ORDER BY rank DESC, t.id DESC LIMIT 51;
+
+-- Rare term (~0.01% of rows)
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE (t.title LIKE '%' || 'zeppelin' || '%' OR t.description LIKE '%' || 'zeppelin' || '%')
+ORDER BY t.created_at, t.id LIMIT 51;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.id AS id, ts_rank(t.search_vector, q) AS rank
+FROM tasks t, websearch_to_tsquery('english', 'zeppelin') q
+WHERE t.search_vector @@ q AND ts_rank(t.search_vector, q) >= 0
+ORDER BY rank DESC, t.id DESC LIMIT 51;
+
+-- Term that matches nothing: LIKE has to read the whole table to find that out
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.* FROM tasks t
+WHERE (t.title LIKE '%' || 'kangaroo' || '%' OR t.description LIKE '%' || 'kangaroo' || '%')
+ORDER BY t.created_at, t.id LIMIT 51;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT t.id AS id, ts_rank(t.search_vector, q) AS rank
+FROM tasks t, websearch_to_tsquery('english', 'kangaroo') q
+WHERE t.search_vector @@ q AND ts_rank(t.search_vector, q) >= 0
+ORDER BY rank DESC, t.id DESC LIMIT 51;
+
+ROLLBACK;
@@ -0,0 +1,40 @@
+-- Random (v4) vs. time-ordered (v7) UUID primary keys: insert time, buffer traffic, WAL volume and
+-- primary-key index size.
+--
+-- Run against a throwaway database that Flyway has migrated (V7 or later, for uuid_generate_v7()), e.g.
+--   psql -d tasklist_bench -v rows=10000000 -f benchmarks/sql/uuid_v4_vs_v7.sql
+-- Each table is filled by one INSERT, so every row is a separate primary-key insertion, in the order
+-- ids were generated. Compare the EXPLAIN timings and buffers, then the summary rows.
+-- Both tables are dropped at the end.
+
+\if :{?rows}
+\else
+    \set rows 10000000
+\endif
+
+CREATE TABLE bench_uuid_v4 (id UUID PRIMARY KEY DEFAULT gen_random_uuid(), title VARCHAR(200) NOT NULL);
+CREATE TABLE bench_uuid_v7 (id UUID PRIMARY KEY DEFAULT uuid_generate_v7(), title VARCHAR(200) NOT NULL);
+CREATE TABLE bench_uuid_wal (version TEXT, lsn_before pg_lsn, lsn_after pg_lsn);
+
+-- v4
+CHECKPOINT;
+INSERT INTO bench_uuid_wal VALUES ('v4', pg_current_wal_insert_lsn(), NULL);
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+INSERT INTO bench_uuid_v4 (title) SELECT 'Task ' || g FROM generate_series(1, :rows) g;
+UPDATE bench_uuid_wal SET lsn_after = pg_current_wal_insert_lsn() WHERE version = 'v4';
+
+-- v7
+CHECKPOINT;
+INSERT INTO bench_uuid_wal VALUES ('v7', pg_current_wal_insert_lsn(), NULL);
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+INSERT INTO bench_uuid_v7 (title) SELECT 'Task ' || g FROM generate_series(1, :rows) g;
+UPDATE bench_uuid_wal SET lsn_after = pg_current_wal_insert_lsn() WHERE version = 'v7';
+
+-- Summary: WAL written by each load, primary-key index and table size
+SELECT w.version
+    || '  wal ' || pg_size_pretty(pg_wal_lsn_diff(w.lsn_after, w.lsn_before))
+    || '  pkey ' || pg_size_pretty(pg_relation_size(('bench_uuid_' || w.version || '_pkey')::regclass))
+    || '  table ' || pg_size_pretty(pg_relation_size(('bench_uuid_' || w.version)::regclass))
+FROM bench_uuid_wal w ORDER BY w.version;
+
+DROP TABLE bench_uuid_v4, bench_uuid_v7, bench_uuid_wal;
@@ -0,0 +1,161 @@
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the application again and again and reports how long it takes until the readiness probe
+ * answers {@code UP}, and how much memory the process holds then and after some traffic. Compares the
+ * plain jar, the AOT-processed jar with its AppCDS archive ({@code cds} Maven profile) and the native
+ * image ({@code native} Maven profile); a variant whose artifact has not been built is skipped.
+ * <p>
+ * Build the artifacts, start Postgres, and run with a plain JDK from the repository root:
+ * <pre>
+ * mvn -Pcds package -DskipTests
+ * mvn -Pnative native:compile -DskipTests    # with GraalVM
+ * java benchmarks/startup/StartupBenchmark.java --runs=5
+ * </pre>
+ * Options: {@code --runs} per variant (default 5), {@code --variants} (comma separated, default
+ * {@code jar,aot-cds,native}), {@code --requests} sent after each start before memory is read again
+ * (default 1000), {@code --port} (default 8080), {@code --args} (passed to the application, default
+ * {@code --spring.jpa.show-sql=false}).
+ * <p>
+ * {@code ready ms} runs from spawning the process to the first {@code 200} from
+ * {@code /actuator/health/readiness}, which includes the database check, so it is what a Kubernetes
+ * readiness probe would see. {@code RSS} is {@code VmRSS} from {@code /proc}, so the memory columns
+ * need Linux. The {@code jar} variant runs the jar left by the last build; the AOT classes that the
+ * {@code cds} profile adds to it are ignored without {@code -Dspring.aot.enabled=true}.
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+            "runs", "5",
+            "variants", "jar,aot-cds,native",
+            "requests", "1000",
+            "port", "8080",
+            "args", "--spring.jpa.show-sql=false"));
+        for (String arg : args) {
+            String[] keyValue = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(keyValue[0], keyValue.length == 2 ? keyValue[1] : "true");
+        }
+
+        Map<String, Variant> variants = new LinkedHashMap<>();
+        variants.put("jar", new Variant(Path.of("target"), Path.of("target/TaskListAPI-0.0.1-SNAPSHOT.jar"),
+            List.of("java", "-jar", "TaskListAPI-0.0.1-SNAPSHOT.jar")));
+        variants.put("aot-cds", new Variant(Path.of("target/cds"), Path.of("target/cds/application.jsa"),
+            List.of("java", "-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true",
+                "-jar", "TaskListAPI-0.0.1-SNAPSHOT.jar")));
+        variants.put("native", new Variant(Path.of("target"), Path.of("target/TaskListAPI"),
+            List.of("./TaskListAPI")));
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+        int runs = Integer.parseInt(options.get("runs"));
+        int requests = Integer.parseInt(options.get("requests"));
+        String url = "http://localhost:" + options.get("port");
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=" + options.get("port")));
+        appArgs.addAll(Arrays.asList(options.get("args").split("\\s+")));
+
+        System.out.printf("%d starts per variant, %d requests to /api/tasks?limit=20 after each%n", runs, requests);
+        System.out.printf("%-8s %9s %9s %9s %13s %13s%n",
+            "variant", "ready ms", "min ms", "max ms", "RSS ready MB", "RSS load MB");
+        for (String name : options.get("variants").split(",")) {
+            Variant variant = variants.get(name.trim());
+            if (variant == null) {
+                throw new IllegalArgumentException("Unknown variant " + name + ", expected one of " + variants.keySet());
+            }
+            if (!Files.exists(variant.artifact)) {
+                System.out.printf("%-8s not built (%s missing)%n", name, variant.artifact);
+                continue;
+            }
+            long[] readyMillis = new long[runs];
+            long[] readyRss = new long[runs];
+            long[] loadRss = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                List<String> command = new ArrayList<>(variant.command);
+                command.addAll(appArgs);
+                Process process = new ProcessBuilder(command)
+                    .directory(variant.directory.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File("target/startup-" + name + ".log"))
+                    .start();
+                try {
+                    long start = System.nanoTime();
+                    awaitReady(client, url, process);
+                    readyMillis[run] = (System.nanoTime() - start) / 1_000_000;
+                    readyRss[run] = rssKilobytes(process.pid());
+                    for (int i = 0; i < requests; i++) {
+                        client.send(HttpRequest.newBuilder(URI.create(url + "/api/tasks?limit=20")).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    }
+                    loadRss[run] = rssKilobytes(process.pid());
+                } finally {
+                    process.destroy();
+                    process.waitFor();
+                }
+            }
+            Arrays.sort(readyMillis);
+            System.out.printf("%-8s %9d %9d %9d %13.0f %13.0f%n", name, readyMillis[runs / 2], readyMillis[0],
+                readyMillis[runs - 1], median(readyRss) / 1024.0, median(loadRss) / 1024.0);
+        }
+    }
+
+    // Polls every 10 ms; gives up after a minute or when the process exits (see target/startup-*.log)
+    private static void awaitReady(HttpClient client, String url, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/actuator/health/readiness"))
+            .timeout(Duration.ofSeconds(1))
+            .build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(1).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Exited with " + process.exitValue() + " before it was ready");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Not ready after a minute");
+    }
+
+    // 0 where /proc is not available
+    private static long rssKilobytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException ex) {
+            // Not Linux
+        }
+        return 0;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Variant(Path directory, Path artifact, List<String> command) {
+    }
+}
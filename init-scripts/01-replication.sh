@@ -0,0 +1,11 @@
+#!/bin/bash
+# Runs once, when the postgres service initializes an empty data volume.
+# Creates the role and physical slot the postgres-replica service streams from.
+set -e
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+	CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD '${REPLICATION_PASSWORD:-replicator}';
+	SELECT pg_create_physical_replication_slot('replica_1');
+EOSQL
+
+echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,73 @@
+package com.example.TaskListAPI.benchmark;
+
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.exception.GlobalExceptionHandler;
+import com.example.TaskListAPI.exception.GlobalExceptionHandler.ErrorResponse;
+import com.example.TaskListAPI.exception.TaskNotFoundException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error bodies built by {@link GlobalExceptionHandler}, on their own and serialized to JSON.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ErrorResponseBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final TaskNotFoundException notFound =
+        new TaskNotFoundException("Task not found with id: 00000000-0000-0000-0000-000000000001");
+    private MethodArgumentNotValidException invalid;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new TaskRequest(), "taskRequest");
+        bindingResult.rejectValue("title", "NotBlank", "Title is required");
+        bindingResult.rejectValue("status", "NotNull", "Status is required");
+        bindingResult.rejectValue("priority", "NotNull", "Priority is required");
+        MethodParameter parameter = new MethodParameter(
+            ErrorResponseBenchmark.class.getDeclaredMethod("validatedEndpoint", TaskRequest.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, bindingResult);
+        writer = Fixtures.objectMapper().writerFor(ErrorResponse.class);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        return handler.handleTaskNotFoundException(notFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationFailed() {
+        return handler.handleValidationExceptions(invalid);
+    }
+
+    @Benchmark
+    public byte[] validationFailedJson() throws IOException {
+        return writer.writeValueAsBytes(handler.handleValidationExceptions(invalid).getBody());
+    }
+
+    @SuppressWarnings("unused")
+    private void validatedEndpoint(TaskRequest taskRequest) {
+    }
+}
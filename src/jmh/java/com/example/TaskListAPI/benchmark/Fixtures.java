@@ -0,0 +1,65 @@
+package com.example.TaskListAPI.benchmark;
+
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // Configured like the ObjectMapper Spring Boot gives the controllers
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    // Configured like the Smile and CBOR converters in WireFormatConfig
+    static ObjectMapper binaryObjectMapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+            .factory(factory)
+            .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    static TaskRequest request(int i) {
+        return new TaskRequest(
+            "Task " + i,
+            "Description of task " + i + ", long enough to look like a real one",
+            LocalDate.of(2030, 1, 1).plusDays(i % 365),
+            Status.values()[i % Status.values().length],
+            Task.Priority.values()[i % Task.Priority.values().length]
+        );
+    }
+
+    static Task task(int i) {
+        TaskRequest request = request(i);
+        Task task = new Task(request.getTitle(), request.getDescription(), request.getDueDate(),
+            request.getStatus(), request.getPriority());
+        task.setId(UUID.nameUUIDFromBytes(("task-" + i).getBytes()));
+        task.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+        task.setUpdatedAt(task.getCreatedAt().plusHours(1));
+        return task;
+    }
+
+    static List<TaskResponse> responses(int size) {
+        List<TaskResponse> responses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            responses.add(TaskResponse.fromEntity(task(i)));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.TaskListAPI.benchmark;
+
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the request body and of response lists of 1, 100 and 10k tasks.
+ * Readers and writers are resolved once, as Spring's message converters do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JsonBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RequestState {
+
+        ObjectReader reader;
+        ObjectWriter writer;
+        TaskRequest request;
+        byte[] json;
+
+        @Setup
+        public void setUp() throws IOException {
+            ObjectMapper objectMapper = Fixtures.objectMapper();
+            reader = objectMapper.readerFor(TaskRequest.class);
+            writer = objectMapper.writerFor(TaskRequest.class);
+            request = Fixtures.request(1);
+            json = writer.writeValueAsBytes(request);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ResponseListState {
+
+        @Param({"1", "100", "10000"})
+        int size;
+
+        ObjectReader reader;
+        ObjectWriter writer;
+        List<TaskResponse> responses;
+        byte[] json;
+
+        @Setup
+        public void setUp() throws IOException {
+            ObjectMapper objectMapper = Fixtures.objectMapper();
+            TypeReference<List<TaskResponse>> listType = new TypeReference<>() {
+            };
+            reader = objectMapper.readerFor(listType);
+            writer = objectMapper.writerFor(listType);
+            responses = Fixtures.responses(size);
+            json = writer.writeValueAsBytes(responses);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeRequest(RequestState state) throws IOException {
+        return state.writer.writeValueAsBytes(state.request);
+    }
+
+    @Benchmark
+    public TaskRequest deserializeRequest(RequestState state) throws IOException {
+        return state.reader.readValue(state.json);
+    }
+
+    @Benchmark
+    public byte[] serializeResponseList(ResponseListState state) throws IOException {
+        return state.writer.writeValueAsBytes(state.responses);
+    }
+
+    @Benchmark
+    public List<TaskResponse> deserializeResponseList(ResponseListState state) throws IOException {
+        return state.reader.readValue(state.json);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.TaskListAPI.benchmark;
+
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.mapper.TaskMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO conversions done once per task on every request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private final TaskMapper taskMapper = new TaskMapper();
+    private final TaskRequest request = Fixtures.request(1);
+    private final Task task = Fixtures.task(1);
+
+    @Benchmark
+    public Task mapperToEntity() {
+        return taskMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public TaskResponse mapperToResponse() {
+        return taskMapper.toResponse(task);
+    }
+
+    @Benchmark
+    public TaskResponse responseFromEntity() {
+        return TaskResponse.fromEntity(task);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.TaskListAPI.benchmark;
+
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding 10k tasks in each wire format the list endpoints offer. {@code json-gzip} is
+ * JSON plus the gzip Tomcat applies to large JSON responses (same default deflate level). The encoded
+ * size of each format is printed when its trial starts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "json-gzip", "smile", "cbor"})
+    String format;
+
+    ObjectReader reader;
+    ObjectWriter writer;
+    List<TaskResponse> responses;
+    byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "smile" -> Fixtures.binaryObjectMapper(new SmileFactory());
+            case "cbor" -> Fixtures.binaryObjectMapper(new CBORFactory());
+            default -> Fixtures.objectMapper();
+        };
+        TypeReference<List<TaskResponse>> listType = new TypeReference<>() {
+        };
+        reader = objectMapper.readerFor(listType);
+        writer = objectMapper.writerFor(listType);
+        responses = Fixtures.responses(10_000);
+        encoded = encode();
+        System.out.printf("%n%s: %,d bytes for %,d tasks%n", format, encoded.length, responses.size());
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!format.equals("json-gzip")) {
+            return writer.writeValueAsBytes(responses);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, responses);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<TaskResponse> decode() throws IOException {
+        if (!format.equals("json-gzip")) {
+            return reader.readValue(encoded);
+        }
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(encoded))) {
+            return reader.readValue(gzip);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.TaskListAPI.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Concurrency limit that adapts with AIMD (additive increase, multiplicative decrease), the way TCP
+ * sizes its congestion window.
+ * <p>
+ * A request counts as a congestion signal when it took longer than the latency threshold, or when it
+ * finished while the connection pool was saturated. The limit then shrinks by 10%, once per round
+ * trip: requests admitted before the last decrease cannot trigger another one. A fast request
+ * finishing while at least half the limit is in use grows it by {@code 1 / limit}, so by about one
+ * per round trip. Requests beyond the limit are refused at once, instead of queueing for a connection
+ * until they time out.
+ */
+public class AdaptiveConcurrencyLimit {
+    
+    private static final double BACKOFF_RATIO = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final BooleanSupplier poolSaturated;
+    private final Counter rejected;
+    private final Counter decreases;
+    
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+    
+    public AdaptiveConcurrencyLimit(String kind,
+                                    int initialLimit,
+                                    int minLimit,
+                                    int maxLimit,
+                                    Duration latencyThreshold,
+                                    BooleanSupplier poolSaturated,
+                                    MeterRegistry meterRegistry) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.poolSaturated = poolSaturated;
+        this.lastDecreaseNanos = System.nanoTime();
+        Gauge.builder("task.admission.limit", this, AdaptiveConcurrencyLimit::getLimit)
+            .description("Requests of this kind allowed in flight at once")
+            .tag("kind", kind)
+            .register(meterRegistry);
+        Gauge.builder("task.admission.in.flight", this, AdaptiveConcurrencyLimit::getInFlight)
+            .description("Admitted requests of this kind not yet completed")
+            .tag("kind", kind)
+            .register(meterRegistry);
+        this.rejected = Counter.builder("task.admission.rejected")
+            .description("Requests refused with 503 because the limit was reached")
+            .tag("kind", kind)
+            .register(meterRegistry);
+        this.decreases = Counter.builder("task.admission.decreases")
+            .description("Times the limit backed off on slow requests or a saturated connection pool")
+            .tag("kind", kind)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Admits a request if fewer than the limit are in flight. Every admitted request must be
+     * {@link #release released}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+    
+    public void release(long startNanos, long endNanos) {
+        // Read outside the lock: it asks the pool, and a slightly stale answer is as good
+        boolean congested = endNanos - startNanos > latencyThresholdNanos || poolSaturated.getAsBoolean();
+        synchronized (this) {
+            int inFlightBefore = inFlight--;
+            if (congested) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastDecreaseNanos = endNanos;
+                    decreases.increment();
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+    
+    public synchronized double getLimit() {
+        return limit;
+    }
+    
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
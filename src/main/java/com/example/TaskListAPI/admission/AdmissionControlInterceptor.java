@@ -0,0 +1,48 @@
+package com.example.TaskListAPI.admission;
+
+import com.example.TaskListAPI.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * Admits each request against the read or the write {@link AdaptiveConcurrencyLimit}, so a spike of
+ * one kind cannot starve the other. A refused request never reaches the controller; it gets a 503
+ * with {@code Retry-After} before its body is read.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    
+    private final AdaptiveConcurrencyLimit reads;
+    private final AdaptiveConcurrencyLimit writes;
+    
+    public AdmissionControlInterceptor(AdaptiveConcurrencyLimit reads, AdaptiveConcurrencyLimit writes) {
+        this.reads = reads;
+        this.writes = writes;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean read = READ_METHODS.contains(request.getMethod());
+        if (!(read ? reads : writes).tryAcquire()) {
+            throw new ServiceOverloadedException(read
+                ? "Too many concurrent reads, retry later"
+                : "Too many concurrent writes, retry later");
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Long start = (Long) request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            (READ_METHODS.contains(request.getMethod()) ? reads : writes).release(start, System.nanoTime());
+        }
+    }
+}
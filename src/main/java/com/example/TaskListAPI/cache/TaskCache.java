@@ -0,0 +1,165 @@
+package com.example.TaskListAPI.cache;
+
+import com.example.TaskListAPI.coalesce.SingleFlight;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.notification.NotificationHandler;
+import com.example.TaskListAPI.notification.NotificationListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size- and TTL-bounded near cache of single tasks, local to this instance.
+ * <p>
+ * Writes call {@link #invalidate(UUID)}, which sends a Postgres NOTIFY in the writing transaction.
+ * Postgres only delivers it once that transaction commits, and delivers it to every instance
+ * (this one included) through the {@link NotificationListener}.
+ * <p>
+ * Concurrent misses for the same task share one load. An eviction also detaches a load in flight,
+ * so callers arriving after a write never receive what was read before it.
+ */
+@Component
+public class TaskCache implements NotificationHandler {
+    
+    public static final String CHANNEL = "task_cache_invalidation";
+    // Notification payload that evicts every task
+    public static final String ALL = "*";
+    
+    private final Cache<UUID, TaskResponse> cache;
+    private final SingleFlight<UUID, TaskResponse> loads;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter remoteInvalidations;
+    // Bumped on every eviction so a load that raced with a write does not put a stale entry back
+    private final AtomicLong evictions = new AtomicLong();
+    
+    public TaskCache(JdbcTemplate jdbcTemplate,
+                     MeterRegistry meterRegistry,
+                     @Value("${task.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${task.cache.expire-after-write:60s}") Duration expireAfterWrite) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks");
+        this.loads = new SingleFlight<>("task", meterRegistry);
+        this.remoteInvalidations = Counter.builder("task.cache.notifications")
+            .description("Cache invalidations received over LISTEN/NOTIFY")
+            .register(meterRegistry);
+    }
+    
+    public TaskResponse get(UUID id, Function<UUID, TaskResponse> loader) {
+        TaskResponse cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long evictionsBeforeLoad = evictions.get();
+        TaskResponse loaded = loads.execute(id, () -> loader.apply(id));
+        putLoaded(id, loaded, evictionsBeforeLoad);
+        return loaded;
+    }
+    
+    /**
+     * For callers that load without blocking: a hit, or null. A miss is loaded by the caller, which
+     * takes {@link #evictionCount()} before it starts and hands both to {@link #putLoaded}.
+     */
+    public TaskResponse getIfPresent(UUID id) {
+        return cache.getIfPresent(id);
+    }
+    
+    public long evictionCount() {
+        return evictions.get();
+    }
+    
+    // Caches what a load returned, unless something was evicted while it ran
+    public void putLoaded(UUID id, TaskResponse loaded, long evictionsBeforeLoad) {
+        cache.put(id, loaded);
+        if (evictions.get() != evictionsBeforeLoad) {
+            cache.invalidate(id);
+        }
+    }
+    
+    /**
+     * Evicts the task on every instance once the current transaction commits.
+     */
+    public void invalidate(UUID id) {
+        notifyAndEvict(id.toString(), () -> evict(id));
+    }
+    
+    /**
+     * Evicts every task on every instance once the current transaction commits, for set-based writes
+     * whose rows are not known one by one.
+     */
+    public void invalidateAll() {
+        notifyAndEvict(ALL, this::evictAll);
+    }
+    
+    private void notifyAndEvict(String payload, Runnable evict) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+    
+    /**
+     * Evicts the task here and now. Writers outside a Spring-managed transaction send the
+     * {@link #CHANNEL} notification themselves and call this once they have committed.
+     */
+    public void evict(UUID id) {
+        evictions.incrementAndGet();
+        loads.forget(id);
+        cache.invalidate(id);
+    }
+    
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+    
+    @Override
+    public void onNotification(String payload) {
+        evictNotified(payload);
+    }
+    
+    // Whatever was written while the listener was down was never evicted
+    @Override
+    public void onMissedNotifications() {
+        evictAll();
+    }
+    
+    void evictNotified(String payload) {
+        remoteInvalidations.increment();
+        if (ALL.equals(payload)) {
+            evictAll();
+        } else {
+            evict(UUID.fromString(payload));
+        }
+    }
+    
+    public void evictAll() {
+        evictions.incrementAndGet();
+        loads.forgetAll();
+        cache.invalidateAll();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,365 @@
+package com.example.TaskListAPI.changes;
+
+import com.example.TaskListAPI.dto.TaskChangeEvent;
+import com.example.TaskListAPI.notification.NotificationHandler;
+import com.example.TaskListAPI.notification.NotificationListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live feed of task changes, served as Server-Sent Events.
+ * <p>
+ * {@link #publish} sends a Postgres NOTIFY per change from inside the writing transaction, so every
+ * instance (this one included) hears about a change through the {@link NotificationListener} once it
+ * commits, and all of them in the same, commit, order. Each instance keeps the last
+ * {@code buffer-size} events: a client reconnecting with Last-Event-ID is sent what it missed, or a
+ * {@code reset} event when that is no longer known and it has to reload.
+ * <p>
+ * Subscribers are asynchronous requests, so an idle one holds a socket and an emitter but no thread.
+ * Events are serialized once on the listener thread and shared by every subscriber, then queued per
+ * subscriber and written by a fixed pool of {@code senders} threads, so a slow client never holds up the
+ * listener (or the cache invalidations it also delivers), and the thread count stays flat however many
+ * clients are subscribed. Each subscriber gets a bounded queue of {@code LIVE_BUFFER}
+ * events. A subscriber that falls that far behind has its stream completed, and resumes from its last
+ * event when it reconnects.
+ * <p>
+ * {@link #changeCount()} moves on with every change, so readers can tell whether anything may have
+ * been written since they last looked without asking the database.
+ */
+@Component
+public class TaskChangeFeed implements NotificationHandler, SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskChangeFeed.class);
+    public static final String CHANNEL = "task_changes";
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+    private static final int LIVE_BUFFER = 256;
+    // Events one subscriber may write before its drain goes to the back of the sender pool's queue
+    private static final int DRAIN_BATCH = 32;
+    private static final Set<DataWithMediaType> RESET = SseEmitter.event().name("reset").data("reload").build();
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Duration heartbeatInterval;
+    private final int senderThreads;
+    // Guarded by this, together with subscribing, so no event falls between a replay and the subscription
+    private final ArrayDeque<BufferedEvent> buffer;
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final Counter dropped;
+    // Bumped when a change is written and commits here, and when any instance's change is heard
+    private final AtomicLong changes = new AtomicLong();
+    
+    private volatile boolean running;
+    private ScheduledExecutorService heartbeats;
+    private ExecutorService senders;
+    
+    public TaskChangeFeed(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${task.changes.buffer-size:10000}") int bufferSize,
+                          @Value("${task.changes.timeout:30m}") Duration timeout,
+                          @Value("${task.changes.heartbeat:20s}") Duration heartbeatInterval,
+                          @Value("${task.changes.senders:4}") int senderThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.senderThreads = senderThreads;
+        this.buffer = new ArrayDeque<>(bufferSize);
+        Gauge.builder("task.changes.subscribers", subscribers, Map::size)
+            .description("Open Server-Sent Events subscriptions to the task change feed")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("task.changes.dropped")
+            .description("Subscriptions closed because the client fell too far behind the feed")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Publishes the events once the current transaction commits, in one round trip however many there are.
+     */
+    public void publish(List<TaskChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        String[] payloads = events.stream().map(this::toJson).toArray(String[]::new);
+        jdbcTemplate.query("SELECT pg_notify(?, payload) FROM unnest(CAST(? AS text[])) AS payload",
+            rs -> null, CHANNEL, payloads);
+        // Counted now and again on commit, so nothing read while the write was open counts as current.
+        // Readers here do not wait for the notification to come back through the listener.
+        changes.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.incrementAndGet();
+                }
+            });
+        }
+    }
+    
+    public void publish(TaskChangeEvent event) {
+        publish(List.of(event));
+    }
+    
+    /**
+     * Changes committed on this instance or heard from any instance so far. Any task written since a
+     * reader took this count moves it on, at the latest once the write's notification has arrived.
+     */
+    public long changeCount() {
+        return changes.get();
+    }
+    
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeout.toMillis()), lastEventId);
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onError(ex -> subscribers.remove(emitter));
+        subscriber.enqueue(SseEmitter.event().reconnectTime(RECONNECT_DELAY_MILLIS).comment("connected").build());
+        synchronized (this) {
+            if (lastEventId != null) {
+                replayAfter(lastEventId, subscriber);
+            }
+            subscribers.put(emitter, subscriber);
+        }
+        return emitter;
+    }
+    
+    // The replay is not held to LIVE_BUFFER: it is bounded by the buffer, and the client is not behind yet
+    private void replayAfter(String lastEventId, Subscriber subscriber) {
+        // Newest events are at the tail, and a reconnecting client has usually missed only a few
+        int missed = 0;
+        Iterator<BufferedEvent> newestFirst = buffer.descendingIterator();
+        while (newestFirst.hasNext()) {
+            if (newestFirst.next().id().equals(lastEventId)) {
+                buffer.stream().skip(buffer.size() - missed).forEach(event -> subscriber.enqueue(event.sse()));
+                return;
+            }
+            missed++;
+        }
+        subscriber.enqueue(RESET);
+    }
+    
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+    
+    @Override
+    public void onNotification(String payload) {
+        changes.incrementAndGet();
+        String id;
+        try {
+            id = objectMapper.readTree(payload).path("id").asText();
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring malformed task change notification: {}", payload, ex);
+            return;
+        }
+        Set<DataWithMediaType> sse = SseEmitter.event().id(id).name("task").data(payload).build();
+        synchronized (this) {
+            if (buffer.size() == bufferSize) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(new BufferedEvent(id, sse));
+            broadcast(sse);
+        }
+    }
+    
+    // Events may have been lost, so no buffered position can be resumed from any more
+    @Override
+    public synchronized void onMissedNotifications() {
+        changes.incrementAndGet();
+        buffer.clear();
+        broadcast(RESET);
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        // Subscribers with events to write queue for these threads; idle subscribers hold none
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-changes-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-changes-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Keeps idle connections open through proxies, and finds the ones whose client has gone
+        heartbeats.scheduleAtFixedRate(() -> broadcast(HEARTBEAT),
+            heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    // Runs before the web server's graceful shutdown, which would otherwise wait for every open stream
+    @Override
+    public void stop() {
+        running = false;
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        subscribers.values().forEach(Subscriber::close);
+        subscribers.clear();
+        if (senders != null) {
+            senders.shutdown();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void broadcast(Set<DataWithMediaType> event) {
+        subscribers.values().forEach(subscriber -> subscriber.offer(event));
+    }
+    
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.emitter) != null) {
+            dropped.increment();
+            log.debug("Closing a task change subscription more than {} events behind", LIVE_BUFFER);
+        }
+        subscriber.close();
+    }
+    
+    private String toJson(TaskChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private record BufferedEvent(String id, Set<DataWithMediaType> sse) {
+    }
+    
+    /**
+     * The events queued for one emitter, written in order by at most one sender thread at a time. A drain
+     * writes up to {@code DRAIN_BATCH} events and then queues itself again, so a busy subscriber takes
+     * turns with the others instead of keeping a sender to itself.
+     */
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        // Guarded by itself, as are draining and closed
+        private final ArrayDeque<Set<DataWithMediaType>> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        // A live event: a subscriber that already has LIVE_BUFFER waiting is dropped instead
+        void offer(Set<DataWithMediaType> event) {
+            synchronized (pending) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() < LIVE_BUFFER) {
+                    pending.addLast(event);
+                    startDraining();
+                    return;
+                }
+            }
+            drop(this);
+        }
+        
+        void enqueue(Set<DataWithMediaType> event) {
+            synchronized (pending) {
+                if (!closed) {
+                    pending.addLast(event);
+                    startDraining();
+                }
+            }
+        }
+        
+        // Completes the emitter now, or after the write in progress, which may be stuck on the socket
+        void close() {
+            synchronized (pending) {
+                pending.clear();
+                closed = true;
+                if (draining) {
+                    return;
+                }
+            }
+            emitter.complete();
+        }
+        
+        private void startDraining() {
+            if (!draining) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            for (int written = 0; ; written++) {
+                Set<DataWithMediaType> event;
+                synchronized (pending) {
+                    if (written == DRAIN_BATCH && !closed && !pending.isEmpty()) {
+                        senders.execute(this::drain);
+                        return;
+                    }
+                    event = closed ? null : pending.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        if (!closed) {
+                            return;
+                        }
+                    }
+                }
+                if (event == null) {
+                    emitter.complete();
+                    return;
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException ex) {
+                    // The client has gone; the servlet container reports the error and completes the request
+                    subscribers.remove(emitter);
+                    synchronized (pending) {
+                        pending.clear();
+                        closed = true;
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
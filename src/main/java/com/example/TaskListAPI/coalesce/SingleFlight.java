@@ -0,0 +1,86 @@
+package com.example.TaskListAPI.coalesce;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one: the first caller runs the load, and whoever
+ * asks for that key while it runs waits for it and shares its result or its exception. Nothing is kept
+ * once the load is done, so the next call loads again.
+ * <p>
+ * A caller joining a flight gets a result read before it arrived. Keys must therefore carry whatever
+ * tells two reads apart, or the flight has to be {@link #forget forgotten} on writes.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("task.coalescing.calls")
+            .description("Reads that ran their query (leader) or shared one already in flight (follower)")
+            .tag("read", name)
+            .tag("role", "leader")
+            .register(meterRegistry);
+        this.followers = Counter.builder("task.coalescing.calls")
+            .description("Reads that ran their query (leader) or shared one already in flight (follower)")
+            .tag("read", name)
+            .tag("role", "follower")
+            .register(meterRegistry);
+    }
+    
+    public V execute(K key, Supplier<V> load) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            followers.increment();
+            return await(inFlight);
+        }
+        
+        leaders.increment();
+        try {
+            V value = load.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            // Only this flight: a forgotten key may have started a newer one
+            flights.remove(key, flight);
+        }
+    }
+    
+    /**
+     * Lets later calls for the key start a new load instead of joining the one in flight, whose
+     * result may predate a write.
+     */
+    public void forget(K key) {
+        flights.remove(key);
+    }
+    
+    public void forgetAll() {
+        flights.clear();
+    }
+    
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
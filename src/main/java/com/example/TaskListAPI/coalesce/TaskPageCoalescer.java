@@ -0,0 +1,71 @@
+package com.example.TaskListAPI.coalesce;
+
+import com.example.TaskListAPI.changes.TaskChangeFeed;
+import com.example.TaskListAPI.datasource.ReplicaDataSource;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskPageResponse;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.service.TaskService;
+import com.example.TaskListAPI.service.TaskService.Versioned;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Coalesces identical concurrent list reads before they reach the database: callers wait for a shared
+ * page without a transaction or a pooled connection of their own, and only the leader runs the
+ * collection version read and the page query.
+ * <p>
+ * Keys hold the request parameters and {@link TaskChangeFeed#changeCount()}, so a caller never joins a
+ * read that started before a change it could have known about. A change committed on another instance
+ * moves the count once its notification arrives, normally within milliseconds.
+ * <p>
+ * With replica routing, keys also tell reads pinned to the primary from reads that may go to a replica.
+ * A client inside its read-your-writes window never shares a page read from a replica.
+ * <p>
+ * Nothing outlives the flight: every page, and the collection version read with it, comes from a query
+ * that was still running when the caller arrived.
+ */
+@Component
+public class TaskPageCoalescer {
+    
+    private final TaskService taskService;
+    private final TaskChangeFeed taskChangeFeed;
+    private final Optional<ReplicaDataSource> replicaDataSource;
+    private final SingleFlight<PageKey, Versioned<TaskPageResponse>> statusPages;
+    private final SingleFlight<PageKey, Versioned<TaskPageResponse>> overduePages;
+    
+    // The replica data source only exists when replica routing is on
+    public TaskPageCoalescer(TaskService taskService, TaskChangeFeed taskChangeFeed,
+                             Optional<ReplicaDataSource> replicaDataSource, MeterRegistry meterRegistry) {
+        this.taskService = taskService;
+        this.taskChangeFeed = taskChangeFeed;
+        this.replicaDataSource = replicaDataSource;
+        this.statusPages = new SingleFlight<>("status", meterRegistry);
+        this.overduePages = new SingleFlight<>("overdue", meterRegistry);
+    }
+    
+    public Versioned<TaskPageResponse> getTasksByStatus(Status status, String cursor, int limit, TaskFields fields) {
+        PageKey key = new PageKey(taskChangeFeed.changeCount(), readsFromPrimary(), status, null, cursor, limit, fields);
+        return statusPages.execute(key, () -> taskService.readAtCollectionVersion(
+            () -> taskService.getTasksByStatus(status, cursor, limit, fields)));
+    }
+    
+    // The date is part of the key because the page changes at midnight
+    public Versioned<TaskPageResponse> getOverdueTasks(String cursor, int limit, TaskFields fields) {
+        PageKey key = new PageKey(taskChangeFeed.changeCount(), readsFromPrimary(), null, LocalDate.now(), cursor, limit,
+            fields);
+        return overduePages.execute(key, () -> taskService.readAtCollectionVersion(
+            () -> taskService.getOverdueTasks(cursor, limit, fields)));
+    }
+    
+    private boolean readsFromPrimary() {
+        return replicaDataSource.map(ReplicaDataSource::readsFromPrimary).orElse(false);
+    }
+    
+    private record PageKey(long changeCount, boolean primary, Status status, LocalDate date, String cursor, int limit,
+                           TaskFields fields) {
+    }
+}
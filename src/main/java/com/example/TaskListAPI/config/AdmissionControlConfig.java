@@ -0,0 +1,80 @@
+package com.example.TaskListAPI.config;
+
+import com.example.TaskListAPI.admission.AdaptiveConcurrencyLimit;
+import com.example.TaskListAPI.admission.AdmissionControlInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Adaptive admission control on the {@code /api/tasks} routes, with separate limits for reads and
+ * writes. The change stream and the export are left out: they hold no connection while they wait and
+ * are meant to stay open. So are the bulk writes (up to 10,000 tasks each): they normally take longer
+ * than the latency threshold, and counting them as congestion would shrink the write limit until
+ * single-task writes were refused on an idle pool. Their size is capped instead.
+ * <p>
+ * Only on the servlet stack, where every admitted request holds a thread: the reactive stack
+ * queues requests for an R2DBC connection without one.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "task.admission.enabled", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+    
+    private final AdmissionControlInterceptor interceptor;
+    
+    public AdmissionControlConfig(DataSource dataSource,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${task.admission.initial-read-limit:20}") int initialReadLimit,
+                                  @Value("${task.admission.initial-write-limit:10}") int initialWriteLimit,
+                                  @Value("${task.admission.min-limit:1}") int minLimit,
+                                  @Value("${task.admission.max-limit:200}") int maxLimit,
+                                  @Value("${task.admission.latency-threshold:200ms}") Duration latencyThreshold) {
+        BooleanSupplier poolSaturated = poolSaturated(primaryPool(dataSource));
+        this.interceptor = new AdmissionControlInterceptor(
+            new AdaptiveConcurrencyLimit("read", initialReadLimit, minLimit, maxLimit, latencyThreshold, poolSaturated, meterRegistry),
+            new AdaptiveConcurrencyLimit("write", initialWriteLimit, minLimit, maxLimit, latencyThreshold, poolSaturated, meterRegistry));
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor)
+            .addPathPatterns("/api/tasks", "/api/tasks/**")
+            .excludePathPatterns("/api/tasks/changes", "/api/tasks/export", "/api/tasks/batch", "/api/tasks/status");
+    }
+    
+    /**
+     * The pool writes go to: the data source itself, or with replica routing the primary pool behind
+     * the routing proxy. Null when no Hikari pool is found, which leaves latency as the only signal.
+     */
+    static HikariDataSource primaryPool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+    
+    // Saturated once more threads wait for a connection than the pool has: each of them sits out at
+    // least a full round of queries
+    private static BooleanSupplier poolSaturated(HikariDataSource dataSource) {
+        if (dataSource == null) {
+            return () -> false;
+        }
+        return () -> {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null && pool.getThreadsAwaitingConnection() >= dataSource.getMaximumPoolSize();
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TaskListAPI.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that serializes the whole body before writing it, so the response carries a
+ * Content-Length. Jackson otherwise streams (and flushes) straight into the response, which then goes
+ * out chunked, and Tomcat can only apply {@code server.compression.min-response-size} when it knows
+ * the length: without one, even a single task would be gzipped.
+ */
+public class ContentLengthJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    
+    public ContentLengthJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+    
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        FastByteArrayOutputStream body = new FastByteArrayOutputStream();
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            @NonNull
+            public OutputStream getBody() {
+                return body;
+            }
+            
+            @Override
+            @NonNull
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        outputMessage.getHeaders().setContentLength(body.size());
+        body.writeTo(outputMessage.getBody());
+    }
+}
\ No newline at end of file
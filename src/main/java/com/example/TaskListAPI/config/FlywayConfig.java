@@ -0,0 +1,27 @@
+package com.example.TaskListAPI.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.SpringProperties;
+
+/**
+ * Migrates the schema at startup, as Spring Boot would, except in a run that stops as soon as the context
+ * is refreshed ({@code -Dspring.context.exit=onRefresh}). That is the class-data-sharing training run of the
+ * {@code cds} Maven profile and of the Dockerfile: it never serves a request and has no database to reach.
+ * <p>
+ * A property switch would not do: with Spring AOT, {@code spring.flyway.enabled} is fixed at build time.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FlywayConfig {
+    
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        boolean exitOnRefresh = "onRefresh".equals(SpringProperties.getProperty("spring.context.exit"));
+        return flyway -> {
+            if (!exitOnRefresh) {
+                flyway.migrate();
+            }
+        };
+    }
+}
\ No newline at end of file
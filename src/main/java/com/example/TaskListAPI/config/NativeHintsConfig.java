@@ -0,0 +1,34 @@
+package com.example.TaskListAPI.config;
+
+import com.example.TaskListAPI.dto.TaskChangeEvent;
+import com.example.TaskListAPI.dto.TaskPageResponse;
+import com.example.TaskListAPI.dto.TaskResponse;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot derive from controller signatures,
+ * entities and repositories. The libraries' metadata comes from the GraalVM metadata repository
+ * ({@code native} Maven profile); a JVM ignores all of it.
+ * <p>
+ * Pages and single tasks reach Jackson wrapped in a {@code MappingJacksonValue} for {@code ?fields=}, and
+ * change events are serialized by the feed. The binding hints also cover the {@link TaskResponse}
+ * constructor that the JPQL constructor expressions call.
+ */
+@Configuration(proxyBeanMethods = false)
+@RegisterReflectionForBinding({TaskPageResponse.class, TaskResponse.class, TaskChangeEvent.class})
+@ImportRuntimeHints(NativeHintsConfig.ApplicationHints.class)
+public class NativeHintsConfig {
+    
+    static class ApplicationHints implements RuntimeHintsRegistrar {
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Jackson reads the ?fields= filter name from the mix-in's annotation
+            hints.reflection().registerType(TaskFieldsConfig.TaskFieldsFilter.class);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.example.TaskListAPI.config;
+
+import com.example.TaskListAPI.datasource.ReadYourWritesFilter;
+import com.example.TaskListAPI.datasource.ReplicaDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}) to streaming replicas when
+ * {@code task.datasource.replica-urls} lists any; everything else, Flyway included, uses the primary.
+ * Without replicas this configuration is off and Spring Boot sets up the single pool as usual.
+ * <p>
+ * The proxy only fetches a physical connection at the first statement, by which time the transaction
+ * manager has marked it read-only or not.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${task.datasource.replica-urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+    
+    // Built from spring.datasource.*, as Spring Boot would, since it backs off once a DataSource is defined here
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${task.datasource.replica-urls}") List<String> replicaUrls,
+                                               @Value("${task.datasource.replica-max-lag:10s}") Duration maxLag,
+                                               @Value("${task.datasource.replica-check-interval:5s}") Duration checkInterval) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setReadOnly(true);
+            // A replica that is down must neither stop startup nor hold a read for the full pool timeout
+            config.setInitializationFailTimeout(-1);
+            config.setConnectionTimeout(checkInterval.toMillis());
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, meterRegistry, maxLag, checkInterval);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaDataSource replicaDataSource,
+                                                     @Value("${task.datasource.read-your-writes:5s}") Duration window) {
+        return new ReadYourWritesFilter(replicaDataSource, window);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.TaskListAPI.config;
+
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Lets a response leave out the {@link TaskResponse} properties a client did not ask for with
+ * {@code ?fields=}. The filter is attached through a mix-in, so the DTO and any ObjectMapper built
+ * outside Spring are unaffected, and everything is serialized when a response sets no filter.
+ * <p>
+ * Applies to every converter built from Spring Boot's Jackson settings: JSON, Smile and CBOR.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TaskFieldsConfig {
+    
+    static final String FILTER = "taskFields";
+    
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer taskFieldsFilter() {
+        return builder -> builder
+            .mixIn(TaskResponse.class, TaskFieldsFilter.class)
+            .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+    
+    /**
+     * Wraps a response body so that its tasks are serialized with only the given fields.
+     */
+    public static MappingJacksonValue withFields(Object body, TaskFields fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!fields.isAll()) {
+            value.setFilters(filters(fields));
+        }
+        return value;
+    }
+    
+    // For writers that serialize tasks one at a time rather than through MappingJacksonValue
+    public static FilterProvider filters(TaskFields fields) {
+        return new SimpleFilterProvider()
+            .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields.names()));
+    }
+    
+    @JsonFilter(FILTER)
+    interface TaskFieldsFilter {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.TaskListAPI.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the JSON model for callers that ask for them with {@code Accept}:
+ * Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}). JSON stays the
+ * default, because these converters come after the JSON one.
+ * <p>
+ * Both formats write UUIDs as 16 raw bytes instead of 36 characters, and dates are written as arrays
+ * of numbers rather than formatted ISO-8601 strings, which is what Jackson spends its time on in JSON.
+ * Jackson clients read either form.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WireFormatConfig {
+    
+    // Takes the place of Spring Boot's JSON converter, with the same ObjectMapper
+    @Bean
+    public MappingJackson2HttpMessageConverter jsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new ContentLengthJsonHttpMessageConverter(objectMapper);
+    }
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryObjectMapper(builder, new SmileFactory()));
+    }
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryObjectMapper(builder, new CBORFactory()));
+    }
+    
+    // The builder is a prototype bean carrying Spring Boot's Jackson settings, so each call gets its own.
+    // Shared with the reactive stack's codecs.
+    public static ObjectMapper binaryObjectMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+            .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+}
\ No newline at end of file
@@ -1,9 +1,23 @@
 package com.example.TaskListAPI.controller;
 
+import com.example.TaskListAPI.changes.TaskChangeFeed;
+import com.example.TaskListAPI.coalesce.TaskPageCoalescer;
+import com.example.TaskListAPI.config.TaskFieldsConfig;
+import com.example.TaskListAPI.dto.TaskBatchResponse;
+import com.example.TaskListAPI.dto.TaskChangeEvent;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskPageResponse;
+import com.example.TaskListAPI.dto.TaskQuery;
 import com.example.TaskListAPI.dto.TaskRequest;
 import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskStatusBulkRequest;
+import com.example.TaskListAPI.dto.TaskStatusBulkResponse;
+import com.example.TaskListAPI.dto.TaskSyncResponse;
 import com.example.TaskListAPI.enums.Status;
 import com.example.TaskListAPI.service.TaskService;
+import com.example.TaskListAPI.service.TaskService.Versioned;
+import com.example.TaskListAPI.sync.TaskSyncService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,22 +26,49 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+// The same endpoints run on WebFlux in ReactiveTaskController under the reactive profile (built with -Preactive)
 @RestController
 @RequestMapping("/api/tasks")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Task Management", description = "APIs for managing tasks")
 public class TaskController {
     
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskSyncService taskSyncService;
+    private final TaskPageCoalescer taskPageCoalescer;
     
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ObjectMapper objectMapper, TaskChangeFeed taskChangeFeed,
+                          TaskSyncService taskSyncService, TaskPageCoalescer taskPageCoalescer) {
         this.taskService = taskService;
+        this.objectMapper = objectMapper;
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskSyncService = taskSyncService;
+        this.taskPageCoalescer = taskPageCoalescer;
     }
     
     @PostMapping
@@ -42,15 +83,99 @@ public class TaskController {
         return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
     }
     
+    @PostMapping("/async")
+    @Operation(summary = "Create a task asynchronously", description = "Validates the task and queues it for a batched insert; it can be read at the Location once committed, normally within milliseconds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Task accepted; Location is where it will be readable"),
+        @ApiResponse(responseCode = "400", description = "Invalid input provided"),
+        @ApiResponse(responseCode = "429", description = "Ingestion queue full; retry after the Retry-After delay")
+    })
+    public ResponseEntity<Void> submitTask(@Valid @RequestBody TaskRequest taskRequest) {
+        UUID id = taskService.submitTask(taskRequest);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/tasks/{id}").buildAndExpand(id).toUri();
+        return ResponseEntity.accepted().location(location).build();
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Create tasks in bulk", description = "Validates each task separately and creates the valid ones using batched inserts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All tasks created successfully",
+            content = @Content(schema = @Schema(implementation = TaskBatchResponse.class))),
+        @ApiResponse(responseCode = "207", description = "Some tasks were invalid and not created",
+            content = @Content(schema = @Schema(implementation = TaskBatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Batch too large")
+    })
+    public ResponseEntity<TaskBatchResponse> createTasks(@RequestBody List<TaskRequest> taskRequests) {
+        TaskBatchResponse batchResponse = taskService.createTasks(taskRequests);
+        HttpStatus status = batchResponse.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(batchResponse, status);
+    }
+    
     @GetMapping
-    @Operation(summary = "Get all tasks", description = "Retrieves a list of all tasks")
+    @Operation(summary = "Get all tasks", description = "Retrieves one page of tasks ordered by creation time")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully",
-            content = @Content(schema = @Schema(implementation = TaskResponse.class)))
+            content = @Content(schema = @Schema(implementation = TaskPageResponse.class))),
+        @ApiResponse(responseCode = "304", description = "No task changed since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<MappingJacksonValue> getAllTasks(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of tasks per page") @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Task fields to return, comma separated; all when omitted") @RequestParam(required = false) String fields,
+            WebRequest request) {
+        TaskFields selected = TaskFields.parse(fields);
+        return revalidated(request, collectionETag(""), selected, () -> taskService.getAllTasks(cursor, limit, selected));
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all tasks", description = "Streams every task as newline-delimited JSON, in no particular order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tasks streamed successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = TaskResponse.class)))
     })
-    public ResponseEntity<List<TaskResponse>> getAllTasks() {
-        List<TaskResponse> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        StreamingResponseBody body = out -> taskService.exportTasks(task -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(task));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+    
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream task changes",
+        description = "Server-Sent Events for every task created, updated or deleted, on any instance. "
+            + "A client reconnecting with Last-Event-ID receives the events it missed, or a reset event when it has to reload")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Change stream opened",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = TaskChangeEvent.class)))
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Id of the last event received, to resume after it")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskChangeFeed.subscribe(lastEventId);
+    }
+    
+    @GetMapping("/sync")
+    @Operation(summary = "Sync changed tasks",
+        description = "Tasks created or updated, and ids of tasks deleted, since the token of a previous sync, oldest change first. "
+            + "Without a token, every task; follow the returned token while hasMore is true")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes retrieved",
+            content = @Content(schema = @Schema(implementation = TaskSyncResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid sync token"),
+        @ApiResponse(responseCode = "410", description = "Sync token too old, sync again without one")
+    })
+    public ResponseEntity<TaskSyncResponse> syncTasks(
+            @Parameter(description = "Token from the previous sync") @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changes per response") @RequestParam(defaultValue = "" + TaskService.MAX_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(taskSyncService.syncTasks(since, limit));
     }
     
     @GetMapping("/{id}")
@@ -58,12 +183,22 @@ public class TaskController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Task found",
             content = @Content(schema = @Schema(implementation = TaskResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Task unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Task not found")
     })
-    public ResponseEntity<TaskResponse> getTaskById(
-            @Parameter(description = "Task ID") @PathVariable UUID id) {
+    public ResponseEntity<MappingJacksonValue> getTaskById(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @Parameter(description = "Task fields to return, comma separated; all when omitted") @RequestParam(required = false) String fields,
+            WebRequest request) {
+        // A single task comes whole from the cache, so fields only trims the response
+        TaskFields selected = TaskFields.parse(fields);
         TaskResponse task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+        long lastModified = task.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (request.checkNotModified(taskETag(task), lastModified)) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT)
+            .body(TaskFieldsConfig.withFields(task, selected));
     }
     
     @PutMapping("/{id}")
@@ -72,13 +207,15 @@ public class TaskController {
         @ApiResponse(responseCode = "200", description = "Task updated successfully",
             content = @Content(schema = @Schema(implementation = TaskResponse.class))),
         @ApiResponse(responseCode = "404", description = "Task not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid input provided")
+        @ApiResponse(responseCode = "400", description = "Invalid input provided"),
+        @ApiResponse(responseCode = "412", description = "Task changed since the ETag in If-Match")
     })
     public ResponseEntity<TaskResponse> updateTask(
             @Parameter(description = "Task ID") @PathVariable UUID id,
-            @Valid @RequestBody TaskRequest taskRequest) {
-        TaskResponse updatedTask = taskService.updateTask(id, taskRequest);
-        return ResponseEntity.ok(updatedTask);
+            @Valid @RequestBody TaskRequest taskRequest,
+            @Parameter(description = "ETag the task must still have") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse updatedTask = taskService.updateTask(id, taskRequest, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(taskETag(updatedTask)).body(updatedTask);
     }
     
     @DeleteMapping("/{id}")
@@ -94,15 +231,22 @@ public class TaskController {
     }
     
     @GetMapping("/filter")
-    @Operation(summary = "Filter tasks by status", description = "Retrieves tasks filtered by their status")
+    @Operation(summary = "Filter tasks by status", description = "Retrieves one page of tasks filtered by their status")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Tasks filtered successfully",
-            content = @Content(schema = @Schema(implementation = TaskResponse.class)))
+            content = @Content(schema = @Schema(implementation = TaskPageResponse.class))),
+        @ApiResponse(responseCode = "304", description = "No task changed since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
     })
-    public ResponseEntity<List<TaskResponse>> getTasksByStatus(
-            @Parameter(description = "Task status") @RequestParam Status status) {
-        List<TaskResponse> tasks = taskService.getTasksByStatus(status);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<MappingJacksonValue> getTasksByStatus(
+            @Parameter(description = "Task status") @RequestParam Status status,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of tasks per page") @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Task fields to return, comma separated; all when omitted") @RequestParam(required = false) String fields,
+            WebRequest request) {
+        TaskFields selected = TaskFields.parse(fields);
+        return coalesced(request, "", selected,
+            () -> taskPageCoalescer.getTasksByStatus(status, cursor, limit, selected));
     }
     
     @PatchMapping("/{id}/status")
@@ -110,35 +254,146 @@ public class TaskController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Task status updated successfully",
             content = @Content(schema = @Schema(implementation = TaskResponse.class))),
-        @ApiResponse(responseCode = "404", description = "Task not found")
+        @ApiResponse(responseCode = "404", description = "Task not found"),
+        @ApiResponse(responseCode = "412", description = "Task changed since the ETag in If-Match")
     })
     public ResponseEntity<TaskResponse> updateTaskStatus(
             @Parameter(description = "Task ID") @PathVariable UUID id,
-            @Parameter(description = "New status") @RequestParam Status status) {
-        TaskResponse updatedTask = taskService.updateTaskStatus(id, status);
-        return ResponseEntity.ok(updatedTask);
+            @Parameter(description = "New status") @RequestParam Status status,
+            @Parameter(description = "ETag the task must still have") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse updatedTask = taskService.updateTaskStatus(id, status, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(taskETag(updatedTask)).body(updatedTask);
+    }
+    
+    @PatchMapping("/status")
+    @Operation(summary = "Update the status of many tasks", description = "Applies explicit id/status pairs, or one status to every task matching a filter, with set-based updates")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statuses updated; reports how many tasks changed",
+            content = @Content(schema = @Schema(implementation = TaskStatusBulkResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request or batch too large")
+    })
+    public ResponseEntity<TaskStatusBulkResponse> updateTaskStatuses(@Valid @RequestBody TaskStatusBulkRequest request) {
+        return ResponseEntity.ok(taskService.updateTaskStatuses(request));
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Search tasks", description = "Searches tasks by keyword in title or description")
+    @Operation(summary = "Search tasks", description = "Full-text search over title and description, one page at a time, most relevant first")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Tasks found",
-            content = @Content(schema = @Schema(implementation = TaskResponse.class)))
+            content = @Content(schema = @Schema(implementation = TaskPageResponse.class))),
+        @ApiResponse(responseCode = "304", description = "No task changed since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<MappingJacksonValue> searchTasks(
+            @Parameter(description = "Search keyword") @RequestParam String keyword,
+            @Parameter(description = "Minimum relevance rank a task must reach") @RequestParam(required = false) Float minRank,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of tasks per page") @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Task fields to return, comma separated; all when omitted") @RequestParam(required = false) String fields,
+            WebRequest request) {
+        TaskFields selected = TaskFields.parse(fields);
+        return revalidated(request, collectionETag(""), selected,
+            () -> taskService.searchTasks(keyword, minRank, cursor, limit, selected));
+    }
+    
+    @GetMapping("/query")
+    @Operation(summary = "Query tasks", description = "Retrieves one page of tasks matching every given criterion, in the requested order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully",
+            content = @Content(schema = @Schema(implementation = TaskPageResponse.class))),
+        @ApiResponse(responseCode = "304", description = "No task changed since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor, sort key or range")
     })
-    public ResponseEntity<List<TaskResponse>> searchTasks(
-            @Parameter(description = "Search keyword") @RequestParam String keyword) {
-        List<TaskResponse> tasks = taskService.searchTasks(keyword);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<MappingJacksonValue> queryTasks(
+            @ParameterObject TaskQuery query,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of tasks per page") @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Task fields to return, comma separated; all when omitted") @RequestParam(required = false) String fields,
+            WebRequest request) {
+        TaskFields selected = TaskFields.parse(fields);
+        return revalidated(request, collectionETag(""), selected,
+            () -> taskService.queryTasks(query, cursor, limit, selected));
     }
     
     @GetMapping("/overdue")
-    @Operation(summary = "Get overdue tasks", description = "Retrieves all overdue tasks")
+    @Operation(summary = "Get overdue tasks", description = "Retrieves one page of overdue tasks")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Overdue tasks retrieved",
-            content = @Content(schema = @Schema(implementation = TaskResponse.class)))
+            content = @Content(schema = @Schema(implementation = TaskPageResponse.class))),
+        @ApiResponse(responseCode = "304", description = "No task changed since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
     })
-    public ResponseEntity<List<TaskResponse>> getOverdueTasks() {
-        List<TaskResponse> tasks = taskService.getOverdueTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<MappingJacksonValue> getOverdueTasks(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of tasks per page") @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Task fields to return, comma separated; all when omitted") @RequestParam(required = false) String fields,
+            WebRequest request) {
+        TaskFields selected = TaskFields.parse(fields);
+        // Which tasks are overdue also changes at midnight, without any write
+        return coalesced(request, "-" + LocalDate.now(), selected,
+            () -> taskPageCoalescer.getOverdueTasks(cursor, limit, selected));
+    }
+    
+    // Conditional GET for list endpoints: the collection version is read first, and a matching
+    // If-None-Match is answered with 304 before the page is queried or serialized.
+    private static ResponseEntity<MappingJacksonValue> revalidated(WebRequest request, String eTag, TaskFields fields,
+                                                                   Supplier<TaskPageResponse> page) {
+        if (request.checkNotModified(eTag)) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT)
+            .body(TaskFieldsConfig.withFields(page.get(), fields));
+    }
+    
+    // Conditional GET for coalesced list endpoints: the version comes with the shared page, read in the
+    // same transaction just before it, so a follower's 304 rests on the same read as the leader's.
+    private static ResponseEntity<MappingJacksonValue> coalesced(WebRequest request, String suffix, TaskFields fields,
+                                                                 Supplier<Versioned<TaskPageResponse>> page) {
+        Versioned<TaskPageResponse> read = page.get();
+        if (request.checkNotModified(collectionETag(read.collectionVersion(), suffix))) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT)
+            .body(TaskFieldsConfig.withFields(read.value(), fields));
+    }
+    
+    // checkNotModified has already set the status and validators; no-cache makes clients revalidate.
+    // Responses vary by Accept (JSON, Smile or CBOR), so shared caches keep one entry per format.
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT).build();
+    }
+    
+    // Weak: the version identifies the data, not the bytes, which differ between formats and encodings.
+    // Tomcat also leaves responses with a strong ETag uncompressed.
+    private String collectionETag(String suffix) {
+        return collectionETag(taskService.getCollectionVersion(), suffix);
+    }
+    
+    private static String collectionETag(long collectionVersion, String suffix) {
+        return "W/\"v" + collectionVersion + suffix + "\"";
+    }
+    
+    // The version column is the entity tag, so the ETag a client read is exactly what If-Match checks.
+    // Shared with ReactiveTaskController, like expectedVersion.
+    static String taskETag(TaskResponse task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+    
+    // No If-Match, or "*", means an unconditional write. Anything that is not one of our strong
+    // ETags (a weak tag, a list) can never match, which -1 guarantees.
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() < 3 || eTag.charAt(0) != '"' || eTag.charAt(eTag.length() - 1) != '"') {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.TaskListAPI.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Opens a {@link ReplicaDataSource} scope around every request, so all of its reads see the same replica.
+ * <p>
+ * A request that writes sets a cookie holding the end of the read-your-writes window. Until then that
+ * client's reads go to the primary, so it sees its own writes however far the replicas are behind. The
+ * cookie makes this work across instances; a client that drops cookies reads from the replicas.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    static final String COOKIE = "read-primary-until";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    
+    private final ReplicaDataSource replicaDataSource;
+    private final Duration window;
+    
+    public ReadYourWritesFilter(ReplicaDataSource replicaDataSource, Duration window) {
+        this.replicaDataSource = replicaDataSource;
+        this.window = window;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write && !window.isZero()) {
+            // Set before the chain runs: once the handler has written the body, headers can no longer be added
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(System.currentTimeMillis() + window.toMillis()))
+                .maxAge(window)
+                .path("/")
+                .httpOnly(true)
+                .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        try (ReplicaDataSource.Scope ignored = replicaDataSource.openScope(write || wroteRecently(request))) {
+            chain.doFilter(request, response);
+        }
+    }
+    
+    private static boolean wroteRecently(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
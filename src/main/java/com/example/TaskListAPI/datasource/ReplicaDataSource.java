@@ -0,0 +1,262 @@
+package com.example.TaskListAPI.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions, handed to {@link LazyConnectionDataSourceProxy#setReadOnlyDataSource}:
+ * from a healthy streaming replica, or from the primary when there is none.
+ * <p>
+ * Every replica is checked once per interval and left out while it is unreachable or further behind
+ * the primary than the maximum lag. A replica that fails to hand out a connection is left out at once,
+ * and that read goes to the primary.
+ * <p>
+ * Inside a {@link #openScope scope}, normally one HTTP request, every read uses the same replica. A list's
+ * ETag is the collection version read just before the page, so both have to come from the same copy of the
+ * data. A scope can also send all of its reads to the primary, for a client that has just written.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements SmartLifecycle, DisposableBean {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+    // Seconds behind the primary, or NULL when the replica is not streaming. An idle primary sends no WAL,
+    // so a replica that has replayed everything it received is current however old its last transaction is.
+    private static final String LAG_SQL = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+        + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver) THEN NULL "
+        + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+        + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+    
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ThreadLocal<Scope> scope = new ThreadLocal<>();
+    
+    private volatile boolean running;
+    private ScheduledExecutorService executor;
+    
+    public ReplicaDataSource(DataSource primary, Map<String, DataSource> replicas, MeterRegistry meterRegistry,
+                             Duration maxLag, Duration checkInterval) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("task.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                .description("Whether the replica is receiving reads")
+                .tag("replica", name)
+                .register(meterRegistry);
+            Gauge.builder("task.datasource.replica.lag", replica, r -> r.lagSeconds)
+                .description("Replication lag at the last check, in seconds")
+                .baseUnit("seconds")
+                .tag("replica", name)
+                .register(meterRegistry);
+        });
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.primaryReads = readCounter(meterRegistry, "primary");
+    }
+    
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("task.datasource.reads")
+            .description("Connections handed out for read-only transactions")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Pins the reads of the current thread to one replica until the scope is closed, or sends them all
+     * to the primary.
+     */
+    public Scope openScope(boolean primaryOnly) {
+        Scope opened = new Scope(primaryOnly);
+        scope.set(opened);
+        return opened;
+    }
+    
+    /**
+     * Whether the reads of the current thread go to the primary: its scope was opened for a client that has
+     * just written, or the replica it was pinned to has gone away.
+     */
+    public boolean readsFromPrimary() {
+        Scope current = scope.get();
+        return current != null && current.primaryOnly;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        Scope current = scope.get();
+        Replica replica = current != null ? current.replica() : nextHealthyReplica();
+        if (replica == null) {
+            return primaryConnection();
+        }
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException ex) {
+            markDown(replica, ex);
+            if (current != null) {
+                current.primaryOnly = true;
+            }
+            return primaryConnection();
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the credentials of their pool");
+    }
+    
+    // Read-only like a replica connection would be, so a write slipping into a read-only transaction still fails
+    private Connection primaryConnection() throws SQLException {
+        Connection connection = primary.getConnection();
+        connection.setReadOnly(true);
+        primaryReads.increment();
+        return connection;
+    }
+    
+    private Replica nextHealthyReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+    
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try {
+                double lag = replicationLag(replica.dataSource);
+                replica.lagSeconds = lag;
+                boolean healthy = lag <= maxLag.toMillis() / 1000.0;
+                if (healthy != replica.healthy) {
+                    log.info("Replica {} is {} ({} s behind)", replica.name, healthy ? "up" : "down", lag);
+                }
+                replica.healthy = healthy;
+            } catch (SQLException | RuntimeException ex) {
+                markDown(replica, ex);
+            }
+        }
+    }
+    
+    // Positive infinity when the replica is not streaming from the primary
+    double replicationLag(DataSource replica) throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+            resultSet.next();
+            double lag = resultSet.getDouble(1);
+            return resultSet.wasNull() ? Double.POSITIVE_INFINITY : lag;
+        }
+    }
+    
+    private void markDown(Replica replica, Exception cause) {
+        if (replica.healthy) {
+            log.warn("Replica {} is down, reading from the primary until it recovers", replica.name, cause);
+        }
+        replica.healthy = false;
+        replica.lagSeconds = Double.NaN;
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+    
+    private static final class Replica {
+        
+        final String name;
+        final DataSource dataSource;
+        // Unhealthy until the first check has passed
+        volatile boolean healthy;
+        volatile double lagSeconds = Double.NaN;
+        
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+    
+    public final class Scope implements AutoCloseable {
+        
+        private boolean primaryOnly;
+        private Replica pinned;
+        
+        private Scope(boolean primaryOnly) {
+            this.primaryOnly = primaryOnly;
+        }
+        
+        // The first read picks a replica. Once it is gone, later reads fall back to the primary, which is
+        // ahead of it; another replica could be behind what this scope has already read.
+        private Replica replica() {
+            if (!primaryOnly && pinned == null) {
+                pinned = nextHealthyReplica();
+                primaryOnly = pinned == null;
+            } else if (!primaryOnly && !pinned.healthy) {
+                primaryOnly = true;
+            }
+            return primaryOnly ? null : pinned;
+        }
+        
+        @Override
+        public void close() {
+            scope.remove();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A task read by delta sync, with the id of the transaction that last wrote it: its position in
+ * change order.
+ */
+public record ChangedTask(long changeXid, TaskResponse task) {
+    
+    // For JPQL constructor expressions, which cannot nest
+    public ChangedTask(long changeXid, UUID id, String title, String description, LocalDate dueDate, Status status,
+                       Task.Priority priority, LocalDateTime createdAt, LocalDateTime updatedAt, long version) {
+        this(changeXid, new TaskResponse(id, title, description, dueDate, status, priority, createdAt, updatedAt, version));
+    }
+}
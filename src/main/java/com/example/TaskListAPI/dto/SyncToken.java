@@ -0,0 +1,95 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.exception.InvalidCursorException;
+import com.example.TaskListAPI.exception.SyncTokenExpiredException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Position of a client in the change history, handed out by sync as an opaque token.
+ * <p>
+ * Changes are ordered by {@code (changeXid, id)}, the id of the transaction that wrote them first.
+ * Everything ordered at or before {@code (changeXid, id)} has been delivered. {@code changeXid} is
+ * null until the first page of a full sync has been read. During a full sync, {@code tombstonesFrom}
+ * is the watermark it started at: the client never had the tasks deleted before then. {@code issuedAt}
+ * is when the sync that reached this position started, which decides when the token expires.
+ */
+public record SyncToken(Long changeXid, UUID id, Long tombstonesFrom, LocalDateTime issuedAt) {
+    
+    // Sorts before every other UUID, so (changeXid, NIL) resumes with everything written by changeXid
+    public static final UUID NIL = new UUID(0, 0);
+    
+    public static SyncToken fullSync(long watermark, LocalDateTime startedAt) {
+        return new SyncToken(null, null, watermark, startedAt);
+    }
+    
+    public static SyncToken caughtUp(long watermark, LocalDateTime syncedAt) {
+        return new SyncToken(watermark, NIL, null, syncedAt);
+    }
+    
+    /**
+     * Tombstones ordered before this transaction id are of no interest to the client.
+     */
+    public long tombstoneFloor() {
+        if (changeXid == null) {
+            return tombstonesFrom;
+        }
+        return tombstonesFrom != null && tombstonesFrom > changeXid ? tombstonesFrom : changeXid;
+    }
+    
+    public String encode() {
+        StringJoiner raw = new StringJoiner(";");
+        if (changeXid != null) {
+            raw.add("xid=" + changeXid);
+            raw.add("id=" + id);
+        }
+        if (tombstonesFrom != null) {
+            raw.add("from=" + tombstonesFrom);
+        }
+        raw.add("issued=" + issuedAt);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Tokens from before sync was ordered by transaction id hold times, which map to no position in
+     * the new order: they start with {@code at=} or {@code from=} but have no {@code issued=}, and are treated
+     * as expired.
+     */
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if ((raw.startsWith("at=") || raw.startsWith("from=")) && !raw.contains("issued=")) {
+                throw new SyncTokenExpiredException("Sync token predates the current sync order, sync again without one");
+            }
+            Long changeXid = null;
+            UUID id = null;
+            Long tombstonesFrom = null;
+            LocalDateTime issuedAt = null;
+            for (String part : raw.split(";")) {
+                String[] keyValue = part.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new InvalidCursorException("Invalid sync token: " + token);
+                }
+                switch (keyValue[0]) {
+                    case "xid" -> changeXid = Long.parseLong(keyValue[1]);
+                    case "id" -> id = UUID.fromString(keyValue[1]);
+                    case "from" -> tombstonesFrom = Long.parseLong(keyValue[1]);
+                    case "issued" -> issuedAt = LocalDateTime.parse(keyValue[1]);
+                    default -> throw new InvalidCursorException("Invalid sync token: " + token);
+                }
+            }
+            if ((changeXid == null) != (id == null) || (changeXid == null && tombstonesFrom == null)
+                || issuedAt == null) {
+                throw new InvalidCursorException("Invalid sync token: " + token);
+            }
+            return new SyncToken(changeXid, id, tombstonesFrom, issuedAt);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid sync token: " + token, ex);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.TaskListAPI.dto;
+
+import java.util.Map;
+
+public class TaskBatchItemResult {
+    
+    public enum Outcome {
+        CREATED, INVALID
+    }
+    
+    private int index;
+    private Outcome outcome;
+    private TaskResponse task;
+    private Map<String, String> errors;
+    
+    public TaskBatchItemResult() {
+    }
+    
+    public TaskBatchItemResult(int index, Outcome outcome, TaskResponse task, Map<String, String> errors) {
+        this.index = index;
+        this.outcome = outcome;
+        this.task = task;
+        this.errors = errors;
+    }
+    
+    public static TaskBatchItemResult created(int index, TaskResponse task) {
+        return new TaskBatchItemResult(index, Outcome.CREATED, task, null);
+    }
+    
+    public static TaskBatchItemResult invalid(int index, Map<String, String> errors) {
+        return new TaskBatchItemResult(index, Outcome.INVALID, null, errors);
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+    
+    public TaskResponse getTask() {
+        return task;
+    }
+    
+    public void setTask(TaskResponse task) {
+        this.task = task;
+    }
+    
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.TaskListAPI.dto;
+
+import java.util.List;
+
+public class TaskBatchResponse {
+    
+    private int created;
+    private int failed;
+    private List<TaskBatchItemResult> results;
+    
+    public TaskBatchResponse() {
+    }
+    
+    public TaskBatchResponse(int created, int failed, List<TaskBatchItemResult> results) {
+        this.created = created;
+        this.failed = failed;
+        this.results = results;
+    }
+    
+    public int getCreated() {
+        return created;
+    }
+    
+    public void setCreated(int created) {
+        this.created = created;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<TaskBatchItemResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<TaskBatchItemResult> results) {
+        this.results = results;
+    }
+}
\ No newline at end of file
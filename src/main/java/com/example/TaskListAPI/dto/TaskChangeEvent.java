@@ -0,0 +1,78 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.entity.UuidV7Generator;
+
+import java.util.UUID;
+
+/**
+ * One committed change to a task, as streamed by {@code GET /api/tasks/changes}. Clients that need
+ * the task itself fetch it by id; {@code version} tells them whether the copy they hold is current.
+ */
+public class TaskChangeEvent {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+    
+    // Generated by the writing instance and carried in the notification, so every instance streams
+    // the event under the same id and Last-Event-ID works whichever one a client reconnects to
+    private String id;
+    private Type type;
+    private UUID taskId;
+    // Null for deletions
+    private Long version;
+    
+    public TaskChangeEvent() {
+    }
+    
+    public TaskChangeEvent(String id, Type type, UUID taskId, Long version) {
+        this.id = id;
+        this.type = type;
+        this.taskId = taskId;
+        this.version = version;
+    }
+    
+    public static TaskChangeEvent created(UUID taskId) {
+        return new TaskChangeEvent(UuidV7Generator.next().toString(), Type.CREATED, taskId, 0L);
+    }
+    
+    public static TaskChangeEvent updated(UUID taskId, long version) {
+        return new TaskChangeEvent(UuidV7Generator.next().toString(), Type.UPDATED, taskId, version);
+    }
+    
+    public static TaskChangeEvent deleted(UUID taskId) {
+        return new TaskChangeEvent(UuidV7Generator.next().toString(), Type.DELETED, taskId, null);
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public UUID getTaskId() {
+        return taskId;
+    }
+    
+    public void setTaskId(UUID taskId) {
+        this.taskId = taskId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
\ No newline at end of file
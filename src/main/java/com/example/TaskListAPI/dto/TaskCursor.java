@@ -0,0 +1,116 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a page, handed to clients as an opaque token.
+ * <p>
+ * List endpoints seek on {@code (created_at, id)}; the status filter also sorts by priority and
+ * search sorts by relevance, so their cursors carry the priority or the rank of the last row.
+ * {@code /query} sorts by whichever keys the client picks, so its cursors carry every sortable value
+ * of the last row; a missing due date is a value too (it sorts after every date).
+ */
+public record TaskCursor(LocalDateTime createdAt, UUID id, Task.Priority priority, Float rank,
+                         LocalDateTime updatedAt, LocalDate dueDate) {
+    
+    public TaskCursor(LocalDateTime createdAt, UUID id, Task.Priority priority, Float rank) {
+        this(createdAt, id, priority, rank, null, null);
+    }
+    
+    public static TaskCursor of(TaskResponse task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId(), null, null);
+    }
+    
+    public static TaskCursor withPriority(TaskResponse task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId(), task.getPriority(), null);
+    }
+    
+    public static TaskCursor sortable(TaskResponse task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId(), task.getPriority(), null, task.getUpdatedAt(),
+            task.getDueDate());
+    }
+    
+    public static TaskCursor ranked(float rank, UUID id) {
+        return new TaskCursor(null, id, null, rank);
+    }
+    
+    public boolean hasCreationKey() {
+        return createdAt != null;
+    }
+    
+    public boolean hasPriorityKey() {
+        return createdAt != null && priority != null;
+    }
+    
+    public boolean hasRankKey() {
+        return rank != null;
+    }
+    
+    // The due date is not checked: it is null both when the last row had none and when it was not recorded
+    public boolean hasSortableKeys() {
+        return createdAt != null && updatedAt != null && priority != null;
+    }
+    
+    public String encode() {
+        StringJoiner raw = new StringJoiner(";");
+        raw.add("id=" + id);
+        if (createdAt != null) {
+            raw.add("created=" + createdAt);
+        }
+        if (priority != null) {
+            raw.add("priority=" + priority.name());
+        }
+        if (rank != null) {
+            raw.add("rank=" + rank);
+        }
+        if (updatedAt != null) {
+            raw.add("updated=" + updatedAt);
+        }
+        if (dueDate != null) {
+            raw.add("due=" + dueDate);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            UUID id = null;
+            LocalDateTime createdAt = null;
+            Task.Priority priority = null;
+            Float rank = null;
+            LocalDateTime updatedAt = null;
+            LocalDate dueDate = null;
+            for (String part : raw.split(";")) {
+                String[] keyValue = part.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new InvalidCursorException("Invalid cursor: " + cursor);
+                }
+                switch (keyValue[0]) {
+                    case "id" -> id = UUID.fromString(keyValue[1]);
+                    case "created" -> createdAt = LocalDateTime.parse(keyValue[1]);
+                    case "priority" -> priority = Task.Priority.valueOf(keyValue[1]);
+                    case "rank" -> rank = Float.valueOf(keyValue[1]);
+                    case "updated" -> updatedAt = LocalDateTime.parse(keyValue[1]);
+                    case "due" -> dueDate = LocalDate.parse(keyValue[1]);
+                    default -> throw new InvalidCursorException("Invalid cursor: " + cursor);
+                }
+            }
+            if (id == null) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return new TaskCursor(createdAt, id, priority, rank, updatedAt, dueDate);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor, ex);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.exception.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@link TaskResponse} properties a client asked for with {@code ?fields=}, always including the id.
+ * <p>
+ * List endpoints read only these columns, plus whatever the page's cursor is built from, and the
+ * response leaves out every other property.
+ */
+public record TaskFields(Set<String> names) {
+    
+    // TaskResponse properties, in the order they are selected and serialized
+    public static final List<String> NAMES = List.of(
+        "id", "title", "description", "dueDate", "status", "priority", "createdAt", "updatedAt", "version");
+    
+    public static final TaskFields ALL = new TaskFields(Set.copyOf(NAMES));
+    
+    public static TaskFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> requested = new HashSet<>();
+        requested.add("id");
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (!NAMES.contains(field)) {
+                throw new InvalidFieldsException("Unknown field '" + field + "', expected any of " + String.join(",", NAMES));
+            }
+            requested.add(field);
+        }
+        return new TaskFields(Set.copyOf(requested));
+    }
+    
+    public boolean isAll() {
+        return names.size() == NAMES.size();
+    }
+    
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+    
+    public TaskFields with(String... names) {
+        Set<String> widened = new HashSet<>(this.names);
+        widened.addAll(Arrays.asList(names));
+        return new TaskFields(Set.copyOf(widened));
+    }
+}
\ No newline at end of file
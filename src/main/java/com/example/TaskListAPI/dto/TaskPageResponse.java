@@ -0,0 +1,43 @@
+package com.example.TaskListAPI.dto;
+
+import java.util.List;
+
+public class TaskPageResponse {
+    
+    private List<TaskResponse> items;
+    private String nextCursor;
+    private int limit;
+    
+    public TaskPageResponse() {
+    }
+    
+    public TaskPageResponse(List<TaskResponse> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+    
+    public List<TaskResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<TaskResponse> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.exception.InvalidQueryException;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Criteria of {@code GET /api/tasks/query}. Unset criteria match every task; set ones must all match.
+ * Due dates are inclusive on both ends, timestamps include {@code from} and exclude {@code to}.
+ */
+public class TaskQuery {
+    
+    // Properties a query can sort by; the id always breaks ties, so every order is total
+    public static final List<String> SORTABLE = List.of("createdAt", "updatedAt", "dueDate", "priority");
+    
+    @Parameter(description = "Any of these statuses")
+    private Set<Status> status;
+    
+    @Parameter(description = "Any of these priorities")
+    private Set<Task.Priority> priority;
+    
+    @Parameter(description = "Due on or after this date")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+    
+    @Parameter(description = "Due on or before this date")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+    
+    @Parameter(description = "Created at or after this time")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    
+    @Parameter(description = "Created before this time")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+    
+    @Parameter(description = "Last updated at or after this time")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+    
+    @Parameter(description = "Last updated before this time")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+    
+    @Parameter(description = "Full-text search over title and description")
+    private String keyword;
+    
+    @Parameter(description = "Sort keys, comma separated, '-' for descending (e.g. -priority,dueDate); createdAt when omitted")
+    private List<String> sort;
+    
+    public TaskQuery() {
+    }
+    
+    /**
+     * The requested order followed by the id. Tasks without a due date sort after every date,
+     * and therefore first when sorting by due date descending.
+     */
+    public Sort toSort() {
+        List<Sort.Order> orders = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String key : sort == null || sort.isEmpty() ? List.of("createdAt") : sort) {
+            String trimmed = key.trim();
+            boolean descending = trimmed.startsWith("-");
+            String property = descending ? trimmed.substring(1) : trimmed;
+            if (!SORTABLE.contains(property)) {
+                throw new InvalidQueryException("Unknown sort key '" + property + "', expected any of " + String.join(",", SORTABLE));
+            }
+            if (!seen.add(property)) {
+                throw new InvalidQueryException("Sort key '" + property + "' is given more than once");
+            }
+            orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+        }
+        orders.add(Sort.Order.asc("id"));
+        return Sort.by(orders);
+    }
+    
+    // Reversed ranges would simply match nothing; a 400 tells the client why
+    public void validate() {
+        checkRange("due", dueFrom != null && dueTo != null && dueFrom.isAfter(dueTo));
+        checkRange("created", createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo));
+        checkRange("updated", updatedFrom != null && updatedTo != null && updatedFrom.isAfter(updatedTo));
+    }
+    
+    private static void checkRange(String name, boolean reversed) {
+        if (reversed) {
+            throw new InvalidQueryException(name + "From must not be after " + name + "To");
+        }
+    }
+    
+    public Set<Status> getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Set<Status> status) {
+        this.status = status;
+    }
+    
+    public Set<Task.Priority> getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(Set<Task.Priority> priority) {
+        this.priority = priority;
+    }
+    
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+    
+    public void setDueFrom(LocalDate dueFrom) {
+        this.dueFrom = dueFrom;
+    }
+    
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+    
+    public void setDueTo(LocalDate dueTo) {
+        this.dueTo = dueTo;
+    }
+    
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+    
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+    
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+    
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+    
+    public LocalDateTime getUpdatedFrom() {
+        return updatedFrom;
+    }
+    
+    public void setUpdatedFrom(LocalDateTime updatedFrom) {
+        this.updatedFrom = updatedFrom;
+    }
+    
+    public LocalDateTime getUpdatedTo() {
+        return updatedTo;
+    }
+    
+    public void setUpdatedTo(LocalDateTime updatedTo) {
+        this.updatedTo = updatedTo;
+    }
+    
+    public String getKeyword() {
+        return keyword;
+    }
+    
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+    
+    public List<String> getSort() {
+        return sort;
+    }
+    
+    public void setSort(List<String> sort) {
+        this.sort = sort;
+    }
+}
\ No newline at end of file
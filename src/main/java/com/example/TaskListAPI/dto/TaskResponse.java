@@ -17,11 +17,12 @@ public class TaskResponse {
     private Task.Priority priority;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
     
     public TaskResponse() {
     }
     
-    public TaskResponse(UUID id, String title, String description, LocalDate dueDate, Status status, Task.Priority priority, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    public TaskResponse(UUID id, String title, String description, LocalDate dueDate, Status status, Task.Priority priority, LocalDateTime createdAt, LocalDateTime updatedAt, long version) {
         this.id = id;
         this.title = title;
         this.description = description;
@@ -30,6 +31,7 @@ public class TaskResponse {
         this.priority = priority;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
     
     public static TaskResponse fromEntity(Task task) {
@@ -41,7 +43,8 @@ public class TaskResponse {
             task.getStatus(),
             task.getPriority(),
             task.getCreatedAt(),
-            task.getUpdatedAt()
+            task.getUpdatedAt(),
+            task.getVersion()
         );
     }
     
@@ -108,4 +111,12 @@ public class TaskResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
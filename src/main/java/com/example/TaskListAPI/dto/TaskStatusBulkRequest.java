@@ -0,0 +1,62 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.enums.Status;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+
+import java.util.List;
+
+/**
+ * Either explicit {@code changes}, or a {@code filter} whose matching tasks all move to {@code status}.
+ */
+public class TaskStatusBulkRequest {
+    
+    private List<@Valid TaskStatusChange> changes;
+    
+    private TaskStatusFilter filter;
+    
+    private Status status;
+    
+    public TaskStatusBulkRequest() {
+    }
+    
+    public TaskStatusBulkRequest(List<TaskStatusChange> changes) {
+        this.changes = changes;
+    }
+    
+    public TaskStatusBulkRequest(TaskStatusFilter filter, Status status) {
+        this.filter = filter;
+        this.status = status;
+    }
+    
+    @JsonIgnore
+    @AssertTrue(message = "Provide either changes, or a filter together with the status to set")
+    public boolean isChangesOrFilter() {
+        return changes != null ? filter == null && status == null : filter != null && status != null;
+    }
+    
+    public List<TaskStatusChange> getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(List<TaskStatusChange> changes) {
+        this.changes = changes;
+    }
+    
+    public TaskStatusFilter getFilter() {
+        return filter;
+    }
+    
+    public void setFilter(TaskStatusFilter filter) {
+        this.filter = filter;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
\ No newline at end of file
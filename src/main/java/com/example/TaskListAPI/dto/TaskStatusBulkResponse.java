@@ -0,0 +1,21 @@
+package com.example.TaskListAPI.dto;
+
+public class TaskStatusBulkResponse {
+    
+    private int updated;
+    
+    public TaskStatusBulkResponse() {
+    }
+    
+    public TaskStatusBulkResponse(int updated) {
+        this.updated = updated;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+}
\ No newline at end of file
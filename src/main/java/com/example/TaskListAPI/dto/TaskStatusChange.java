@@ -0,0 +1,39 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.enums.Status;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public class TaskStatusChange {
+    
+    @NotNull(message = "Id is required")
+    private UUID id;
+    
+    @NotNull(message = "Status is required")
+    private Status status;
+    
+    public TaskStatusChange() {
+    }
+    
+    public TaskStatusChange(UUID id, Status status) {
+        this.id = id;
+        this.status = status;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
\ No newline at end of file
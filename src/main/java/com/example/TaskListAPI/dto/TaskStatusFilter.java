@@ -0,0 +1,38 @@
+package com.example.TaskListAPI.dto;
+
+import com.example.TaskListAPI.enums.Status;
+
+/**
+ * Selects the tasks a bulk status change applies to. Unset criteria match every task.
+ */
+public class TaskStatusFilter {
+    
+    private Status status;
+    
+    // Same definition as GET /api/tasks/overdue: due today or earlier and not completed or cancelled
+    private boolean overdue;
+    
+    public TaskStatusFilter() {
+    }
+    
+    public TaskStatusFilter(Status status, boolean overdue) {
+        this.status = status;
+        this.overdue = overdue;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public boolean isOverdue() {
+        return overdue;
+    }
+    
+    public void setOverdue(boolean overdue) {
+        this.overdue = overdue;
+    }
+}
\ No newline at end of file
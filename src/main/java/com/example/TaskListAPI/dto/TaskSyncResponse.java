@@ -0,0 +1,54 @@
+package com.example.TaskListAPI.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class TaskSyncResponse {
+    
+    private List<TaskResponse> tasks;
+    private List<UUID> deleted;
+    private String token;
+    private boolean hasMore;
+    
+    public TaskSyncResponse() {
+    }
+    
+    public TaskSyncResponse(List<TaskResponse> tasks, List<UUID> deleted, String token, boolean hasMore) {
+        this.tasks = tasks;
+        this.deleted = deleted;
+        this.token = token;
+        this.hasMore = hasMore;
+    }
+    
+    public List<TaskResponse> getTasks() {
+        return tasks;
+    }
+    
+    public void setTasks(List<TaskResponse> tasks) {
+        this.tasks = tasks;
+    }
+    
+    public List<UUID> getDeleted() {
+        return deleted;
+    }
+    
+    public void setDeleted(List<UUID> deleted) {
+        this.deleted = deleted;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.TaskListAPI.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Task.Priority} as its rank so the database sorts it in priority order.
+ */
+@Converter
+public class PriorityRankConverter implements AttributeConverter<Task.Priority, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(Task.Priority priority) {
+        return priority == null ? null : (short) priority.getRank();
+    }
+    
+    @Override
+    public Task.Priority convertToEntityAttribute(Short rank) {
+        return rank == null ? null : Task.Priority.fromRank(rank);
+    }
+}
\ No newline at end of file
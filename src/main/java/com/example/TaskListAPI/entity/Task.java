@@ -17,7 +17,7 @@ import java.util.UUID;
 public class Task {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @NotBlank(message = "Title is required")
@@ -38,8 +38,8 @@ public class Task {
     private Status status;
     
     @NotNull(message = "Priority is required")
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Convert(converter = PriorityRankConverter.class)
+    @Column(name = "priority_rank", nullable = false)
     private Priority priority;
     
     @CreationTimestamp
@@ -50,8 +50,35 @@ public class Task {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(nullable = false)
+    private long version;
+    
+    // Id of the transaction that last wrote the row, set by a trigger; delta sync pages in this order
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private long changeXid;
+    
     public enum Priority {
-        LOW, MEDIUM, HIGH
+        LOW(1), MEDIUM(2), HIGH(3);
+        
+        private final int rank;
+        
+        Priority(int rank) {
+            this.rank = rank;
+        }
+        
+        public int getRank() {
+            return rank;
+        }
+        
+        public static Priority fromRank(int rank) {
+            for (Priority priority : values()) {
+                if (priority.rank == rank) {
+                    return priority;
+                }
+            }
+            throw new IllegalArgumentException("Unknown priority rank: " + rank);
+        }
     }
     
     public Task() {
@@ -130,4 +157,16 @@ public class Task {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    public long getChangeXid() {
+        return changeXid;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.TaskListAPI.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered ids (RFC 9562 version 7): a 48-bit Unix millisecond timestamp, a 12-bit counter and
+ * 62 random bits. Consecutive inserts land on the right-hand edge of the primary-key B-tree instead
+ * of on random leaf pages, which keeps the index dense and its hot pages in cache. They are still
+ * ordinary UUIDs, so they live alongside the random version 4 ids created before.
+ * <p>
+ * Ids from this JVM are strictly increasing: within a millisecond the counter advances, and if it
+ * overflows or the clock steps back the timestamp is carried forward rather than reused.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // Unix milliseconds << 12 | counter, of the last id handed out
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+    
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long timestampAndCounter = LAST_TIMESTAMP_AND_COUNTER.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSignificantBits = (timestampAndCounter >>> 12) << 16 | 0x7000L | (timestampAndCounter & 0xFFFL);
+        long leastSignificantBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+    
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
\ No newline at end of file
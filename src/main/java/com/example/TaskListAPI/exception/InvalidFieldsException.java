@@ -0,0 +1,12 @@
+package com.example.TaskListAPI.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFieldsException extends RuntimeException {
+    
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
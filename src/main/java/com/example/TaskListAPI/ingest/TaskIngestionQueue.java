@@ -0,0 +1,246 @@
+package com.example.TaskListAPI.ingest;
+
+import com.example.TaskListAPI.changes.TaskChangeFeed;
+import com.example.TaskListAPI.dto.TaskChangeEvent;
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.exception.IngestionQueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue of tasks accepted for asynchronous creation, written with group commit: one thread
+ * takes the first waiting task, collects whatever else arrives within {@code max-delay} (or until
+ * {@code batch-size} tasks are waiting) and inserts them all in one transaction.
+ * <p>
+ * A full queue rejects submissions immediately instead of blocking the caller. Queued tasks only
+ * live in memory until their batch commits: stopping the application flushes them, a crash loses them.
+ * <p>
+ * A batch that fails to commit is retried with exponential backoff for as long as the application
+ * runs, so a database outage or failover delays accepted tasks instead of losing them (and fills the
+ * queue, which then rejects new submissions). A batch the database rejects for its data is split in
+ * halves, each committed on its own, so only the tasks it refuses are lost.
+ */
+@Component
+public class TaskIngestionQueue implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskIngestionQueue.class);
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000;
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+    // Once stopping, a batch gets this many attempts in all, so a database that is down cannot hold up shutdown
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    // created_at, updated_at and version take their column defaults; pgjdbc rewrites the batch
+    // into multi-row INSERTs (reWriteBatchedInserts)
+    private static final String INSERT_SQL = "INSERT INTO tasks (id, title, description, due_date, status, priority_rank) "
+        + "VALUES (?, ?, ?, ?, ?, ?)";
+    
+    private final BlockingQueue<PendingTask> queue;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskChangeFeed taskChangeFeed;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter retried;
+    private final Counter failed;
+    
+    private volatile boolean running;
+    private Thread thread;
+    
+    public TaskIngestionQueue(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              TaskChangeFeed taskChangeFeed,
+                              MeterRegistry meterRegistry,
+                              @Value("${task.ingest.queue-capacity:10000}") int queueCapacity,
+                              @Value("${task.ingest.batch-size:500}") int batchSize,
+                              @Value("${task.ingest.max-delay:5ms}") Duration maxDelay) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskChangeFeed = taskChangeFeed;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        Gauge.builder("task.ingest.queue.depth", queue, Collection::size)
+            .description("Tasks accepted for asynchronous creation and not yet committed")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("task.ingest.batch.size")
+            .description("Tasks inserted per group commit")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("task.ingest.rejected")
+            .description("Submissions refused because the queue was full")
+            .register(meterRegistry);
+        this.retried = Counter.builder("task.ingest.retried")
+            .description("Batch commits that failed and were tried again")
+            .register(meterRegistry);
+        this.failed = Counter.builder("task.ingest.failed")
+            .description("Accepted tasks lost because the database refused them, or was still failing at shutdown")
+            .register(meterRegistry);
+    }
+    
+    public void submit(UUID id, TaskRequest taskRequest) {
+        if (!queue.offer(new PendingTask(id, taskRequest))) {
+            rejected.increment();
+            throw new IngestionQueueFullException("Ingestion queue is full, retry later");
+        }
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::drain, "task-ingestion");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Stopped with {} ingested tasks not committed", queue.size());
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // Stops after the web server (DEFAULT_PHASE - 2048), so no request is accepted after the final flush
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+    
+    private void drain() {
+        List<PendingTask> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                PendingTask first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (running && batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingTask next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commitOrSplit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // Shutdown flush: whatever is still queued goes out in full batches, without waiting
+        do {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (!batch.isEmpty()) {
+                commitOrSplit(batch);
+                batch.clear();
+            }
+        } while (!queue.isEmpty());
+    }
+    
+    private void commitOrSplit(List<PendingTask> batch) {
+        try {
+            commitWithRetries(batch);
+        } catch (DataIntegrityViolationException ex) {
+            if (batch.size() == 1) {
+                failed.increment();
+                log.error("Dropped ingested task {}, which the database refused", batch.get(0).id(), ex);
+                return;
+            }
+            int half = batch.size() / 2;
+            commitOrSplit(batch.subList(0, half));
+            commitOrSplit(batch.subList(half, batch.size()));
+        } catch (RuntimeException ex) {
+            failed.increment(batch.size());
+            log.error("Failed to commit a batch of {} ingested tasks while stopping", batch.size(), ex);
+        }
+    }
+    
+    // Rethrows a data error at once, and anything else only once stopping has used up its attempts
+    private void commitWithRetries(List<PendingTask> batch) {
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        int attemptsWhileStopping = 0;
+        while (true) {
+            try {
+                commit(batch);
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                throw ex;
+            } catch (RuntimeException ex) {
+                if (!running && ++attemptsWhileStopping >= SHUTDOWN_ATTEMPTS) {
+                    throw ex;
+                }
+                retried.increment();
+                log.warn("Failed to commit a batch of {} ingested tasks, retrying in {} ms", batch.size(), backoff, ex);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+    
+    private void commit(List<PendingTask> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, task) -> {
+                TaskRequest request = task.request();
+                ps.setObject(1, task.id());
+                ps.setString(2, request.getTitle());
+                ps.setString(3, request.getDescription());
+                ps.setObject(4, request.getDueDate());
+                ps.setString(5, request.getStatus().name());
+                ps.setInt(6, request.getPriority().getRank());
+            });
+            taskChangeFeed.publish(batch.stream().map(task -> TaskChangeEvent.created(task.id())).toList());
+        });
+        batchSizes.record(batch.size());
+    }
+    
+    private record PendingTask(UUID id, TaskRequest request) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.TaskListAPI.notification;
+
+/**
+ * Receives the Postgres notifications sent on one channel, through {@link NotificationListener}.
+ */
+public interface NotificationHandler {
+    
+    String channel();
+    
+    void onNotification(String payload);
+    
+    /**
+     * Called when notifications may have been missed: whenever listening (re)starts, and when the
+     * connection is lost.
+     */
+    void onMissedNotifications();
+}
\ No newline at end of file
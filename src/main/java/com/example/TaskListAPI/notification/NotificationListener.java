@@ -0,0 +1,132 @@
+package com.example.TaskListAPI.notification;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one dedicated connection (outside the Hikari pool) in LISTEN mode on the channel of every
+ * {@link NotificationHandler} and hands each notification to the handlers of its channel, in commit
+ * order. Whenever the connection has to be re-established the handlers are told, since notifications
+ * sent while it was down are lost.
+ * <p>
+ * Waiting for notifications only reads the socket, which cannot tell a quiet connection from one
+ * silently dropped by a NAT, a load balancer or a failover. So a connection that has been quiet for
+ * {@code health-check-interval} runs {@code SELECT 1}, bounded by the socket timeout, and a failed check
+ * is handled as a lost connection. TCP keepalive is on as well.
+ */
+@Component
+public class NotificationListener implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(NotificationListener.class);
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+    // Bounds every read on the connection, health checks included (pgjdbc takes seconds)
+    private static final int SOCKET_TIMEOUT_SECONDS = 10;
+    
+    private final Map<String, List<NotificationHandler>> handlers;
+    private final DataSourceProperties dataSourceProperties;
+    private final long healthCheckIntervalNanos;
+    
+    private volatile boolean running;
+    private Thread thread;
+    
+    public NotificationListener(List<NotificationHandler> handlers,
+                                DataSourceProperties dataSourceProperties,
+                                @Value("${task.notifications.health-check-interval:10s}") Duration healthCheckInterval) {
+        this.handlers = handlers.stream().collect(Collectors.groupingBy(NotificationHandler::channel));
+        this.dataSourceProperties = dataSourceProperties;
+        this.healthCheckIntervalNanos = healthCheckInterval.toNanos();
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "notification-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void listen() {
+        while (running) {
+            try (Connection connection = openConnection();
+                 Statement statement = connection.createStatement()) {
+                for (String channel : handlers.keySet()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                handlers.values().forEach(channel -> channel.forEach(NotificationHandler::onMissedNotifications));
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                long lastHeard = System.nanoTime();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null || notifications.length == 0) {
+                        if (System.nanoTime() - lastHeard >= healthCheckIntervalNanos) {
+                            statement.execute("SELECT 1");
+                            lastHeard = System.nanoTime();
+                        }
+                        continue;
+                    }
+                    lastHeard = System.nanoTime();
+                    for (PGNotification notification : notifications) {
+                        for (NotificationHandler handler : handlers.get(notification.getName())) {
+                            handler.onNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification listener lost its connection, retrying in {} ms", RECONNECT_DELAY_MILLIS, ex);
+                handlers.values().forEach(channel -> channel.forEach(NotificationHandler::onMissedNotifications));
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("socketTimeout", String.valueOf(SOCKET_TIMEOUT_SECONDS));
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+}
\ No newline at end of file
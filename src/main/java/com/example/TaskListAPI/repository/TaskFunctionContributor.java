@@ -0,0 +1,55 @@
+package com.example.TaskListAPI.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Registers {@code task_search_matches(t.id, :keyword)} for JPQL and Criteria queries. It renders
+ * {@code t.search_vector @@ websearch_to_tsquery('english', :keyword)}, so keyword filters use the GIN
+ * index even though the generated {@code search_vector} column is not mapped on {@code Task}.
+ * <p>
+ * The first argument only supplies the table alias to qualify the column with. Loaded through
+ * {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ */
+public class TaskFunctionContributor implements FunctionContributor {
+    
+    public static final String SEARCH_MATCHES = "task_search_matches";
+    
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+            .resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry().register(SEARCH_MATCHES, new SearchMatches(booleanType));
+    }
+    
+    private static class SearchMatches extends AbstractSqmSelfRenderingFunctionDescriptor {
+        
+        SearchMatches(BasicType<Boolean> booleanType) {
+            super(SEARCH_MATCHES, StandardArgumentsValidators.exactly(2),
+                StandardFunctionReturnTypeResolvers.invariant(booleanType), StandardFunctionArgumentTypeResolvers.NULL);
+        }
+        
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> sqlAstArguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+            String qualifier = ((Expression) sqlAstArguments.get(0)).getColumnReference().getQualifier();
+            sqlAppender.appendSql(qualifier);
+            sqlAppender.appendSql(".search_vector @@ websearch_to_tsquery('english', ");
+            sqlAstArguments.get(1).accept(walker);
+            sqlAppender.appendSql(')');
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.TaskListAPI.repository;
+
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.entity.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TaskProjectionRepository {
+    
+    /**
+     * Runs one of the {@link TaskRepository} query tails (such as {@link TaskRepository#FIRST_PAGE}) reading
+     * only the given fields; the others are left unset in the returned rows.
+     */
+    List<TaskResponse> findResponses(TaskFields fields, String query, Map<String, ?> parameters);
+    
+    /**
+     * Reads the given fields of the first {@code limit} tasks matching {@code where}, in {@code sort} order,
+     * as one Criteria query.
+     */
+    List<TaskResponse> findResponses(TaskFields fields, Specification<Task> where, Sort sort, int limit);
+}
\ No newline at end of file
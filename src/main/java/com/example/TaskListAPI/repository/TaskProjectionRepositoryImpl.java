@@ -0,0 +1,86 @@
+package com.example.TaskListAPI.repository;
+
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Sparse reads as scalar tuples: Hibernate selects just the requested columns, so a page without
+ * descriptions never reads them from Postgres (or from TOAST, for long ones).
+ */
+class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+    
+    private static final Map<String, BiConsumer<TaskResponse, Object>> SETTERS = Map.of(
+        "id", (task, value) -> task.setId((UUID) value),
+        "title", (task, value) -> task.setTitle((String) value),
+        "description", (task, value) -> task.setDescription((String) value),
+        "dueDate", (task, value) -> task.setDueDate((LocalDate) value),
+        "status", (task, value) -> task.setStatus((Status) value),
+        "priority", (task, value) -> task.setPriority((Task.Priority) value),
+        "createdAt", (task, value) -> task.setCreatedAt((LocalDateTime) value),
+        "updatedAt", (task, value) -> task.setUpdatedAt((LocalDateTime) value),
+        "version", (task, value) -> task.setVersion((Long) value));
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<TaskResponse> findResponses(TaskFields fields, String query, Map<String, ?> parameters) {
+        List<String> selected = TaskFields.NAMES.stream().filter(fields::contains).toList();
+        StringJoiner select = new StringJoiner(", ", "SELECT ", " FROM Task t ");
+        selected.forEach(field -> select.add("t." + field + " AS " + field));
+        
+        TypedQuery<Tuple> tuples = entityManager.createQuery(select + query, Tuple.class);
+        parameters.forEach(tuples::setParameter);
+        return toResponses(tuples, selected);
+    }
+    
+    @Override
+    public List<TaskResponse> findResponses(TaskFields fields, Specification<Task> where, Sort sort, int limit) {
+        List<String> selected = TaskFields.NAMES.stream().filter(fields::contains).toList();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        query.multiselect(selected.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList());
+        // A specification without criteria yields no predicate at all
+        Predicate predicate = where.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return toResponses(entityManager.createQuery(query).setMaxResults(limit), selected);
+    }
+    
+    private static List<TaskResponse> toResponses(TypedQuery<Tuple> tuples, List<String> selected) {
+        return tuples.getResultList().stream()
+            .map(tuple -> {
+                TaskResponse task = new TaskResponse();
+                for (String field : selected) {
+                    SETTERS.get(field).accept(task, tuple.get(field));
+                }
+                return task;
+            })
+            .toList();
+    }
+}
\ No newline at end of file
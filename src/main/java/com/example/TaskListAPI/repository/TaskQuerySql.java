@@ -0,0 +1,140 @@
+package com.example.TaskListAPI.repository;
+
+import com.example.TaskListAPI.dto.TaskCursor;
+import com.example.TaskListAPI.dto.TaskQuery;
+import com.example.TaskListAPI.enums.Status;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * {@link TaskSpecifications} as SQL, for {@code ReactiveTaskRepository.findResponses} (built with {@code -Preactive}):
+ * the same criteria and the same keyset segments, written against the {@code tasks t} columns. Values go
+ * into {@code params} and are referenced as named parameters, so no client input ends up in the statement.
+ */
+public final class TaskQuerySql {
+    
+    private static final Map<String, String> COLUMNS = Map.of(
+        "createdAt", "t.created_at",
+        "updatedAt", "t.updated_at",
+        "dueDate", "t.due_date",
+        "priority", "t.priority_rank",
+        "id", "t.id");
+    
+    private TaskQuerySql() {
+    }
+    
+    public static String matching(TaskQuery query, Map<String, Object> params) {
+        List<String> criteria = new ArrayList<>();
+        if (query.getStatus() != null && !query.getStatus().isEmpty()) {
+            criteria.add("t.status IN (" + bind(params, query.getStatus().stream().map(Status::name).toList()) + ")");
+        }
+        if (query.getPriority() != null && !query.getPriority().isEmpty()) {
+            criteria.add("t.priority_rank IN ("
+                + bind(params, query.getPriority().stream().map(priority -> (short) priority.getRank()).toList()) + ")");
+        }
+        if (query.getDueFrom() != null) {
+            criteria.add("t.due_date >= " + bind(params, query.getDueFrom()));
+        }
+        if (query.getDueTo() != null) {
+            criteria.add("t.due_date <= " + bind(params, query.getDueTo()));
+        }
+        if (query.getCreatedFrom() != null) {
+            criteria.add("t.created_at >= " + bind(params, query.getCreatedFrom()));
+        }
+        if (query.getCreatedTo() != null) {
+            criteria.add("t.created_at < " + bind(params, query.getCreatedTo()));
+        }
+        if (query.getUpdatedFrom() != null) {
+            criteria.add("t.updated_at >= " + bind(params, query.getUpdatedFrom()));
+        }
+        if (query.getUpdatedTo() != null) {
+            criteria.add("t.updated_at < " + bind(params, query.getUpdatedTo()));
+        }
+        if (query.getKeyword() != null && !query.getKeyword().isBlank()) {
+            criteria.add("t.search_vector @@ websearch_to_tsquery('english', " + bind(params, query.getKeyword()) + ")");
+        }
+        return criteria.isEmpty() ? "TRUE" : String.join(" AND ", criteria);
+    }
+    
+    // See TaskSpecifications#after for why a page may take two segments
+    public static List<String> after(Sort sort, TaskCursor cursor, Map<String, Object> params) {
+        Sort.Order first = sort.iterator().next();
+        if (!"dueDate".equals(first.getProperty())) {
+            return List.of(notBefore(first, cursor, params) + " AND " + keyset(sort, cursor, params));
+        }
+        String undated = "t.due_date IS NULL";
+        String dated = "t.due_date IS NOT NULL";
+        if (cursor.dueDate() == null) {
+            String restOfUndated = undated + " AND " + keyset(Sort.by(sort.stream().skip(1).toList()), cursor, params);
+            return first.isAscending() ? List.of(restOfUndated) : List.of(restOfUndated, dated);
+        }
+        String restOfDated = notBefore(first, cursor, params) + " AND " + keyset(sort, cursor, params);
+        return first.isAscending() ? List.of(restOfDated, undated) : List.of(restOfDated);
+    }
+    
+    public static String orderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", "ORDER BY ", "");
+        sort.forEach(order -> orderBy.add(COLUMNS.get(order.getProperty()) + (order.isAscending() ? "" : " DESC")));
+        return orderBy.toString();
+    }
+    
+    private static String notBefore(Sort.Order order, TaskCursor cursor, Map<String, Object> params) {
+        String value = bind(params, valueOf(order.getProperty(), cursor));
+        return COLUMNS.get(order.getProperty()) + (order.isAscending() ? " >= " : " <= ") + value;
+    }
+    
+    private static String keyset(Sort sort, TaskCursor cursor, Map<String, Object> params) {
+        List<String> alternatives = new ArrayList<>();
+        List<String> equalSoFar = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String beyond = beyond(order, cursor, params);
+            if (beyond != null) {
+                List<String> alternative = new ArrayList<>(equalSoFar);
+                alternative.add(beyond);
+                alternatives.add("(" + String.join(" AND ", alternative) + ")");
+            }
+            equalSoFar.add(equal(order.getProperty(), cursor, params));
+        }
+        return alternatives.isEmpty() ? "FALSE" : "(" + String.join(" OR ", alternatives) + ")";
+    }
+    
+    // Rows strictly after the cursor on this key alone; null when no row can be
+    private static String beyond(Sort.Order order, TaskCursor cursor, Map<String, Object> params) {
+        String column = COLUMNS.get(order.getProperty());
+        Object value = valueOf(order.getProperty(), cursor);
+        if (value == null) {
+            return order.isAscending() ? null : column + " IS NOT NULL";
+        }
+        String beyond = column + (order.isAscending() ? " > " : " < ") + bind(params, value);
+        return order.isAscending() && "dueDate".equals(order.getProperty())
+            ? "(" + beyond + " OR " + column + " IS NULL)"
+            : beyond;
+    }
+    
+    private static String equal(String property, TaskCursor cursor, Map<String, Object> params) {
+        Object value = valueOf(property, cursor);
+        String column = COLUMNS.get(property);
+        return value == null ? column + " IS NULL" : column + " = " + bind(params, value);
+    }
+    
+    private static Object valueOf(String property, TaskCursor cursor) {
+        return switch (property) {
+            case "createdAt" -> cursor.createdAt();
+            case "updatedAt" -> cursor.updatedAt();
+            case "dueDate" -> cursor.dueDate();
+            case "priority" -> cursor.priority() == null ? null : (short) cursor.priority().getRank();
+            case "id" -> cursor.id();
+            default -> throw new IllegalArgumentException("Not a sort key: " + property);
+        };
+    }
+    
+    private static String bind(Map<String, Object> params, Object value) {
+        String name = "q" + params.size();
+        params.put(name, value);
+        return ":" + name;
+    }
+}
\ No newline at end of file
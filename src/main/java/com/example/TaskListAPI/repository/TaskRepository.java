@@ -1,28 +1,252 @@
 package com.example.TaskListAPI.repository;
 
+import com.example.TaskListAPI.dto.ChangedTask;
+import com.example.TaskListAPI.dto.TaskResponse;
 import com.example.TaskListAPI.entity.Task;
 import com.example.TaskListAPI.enums.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, TaskProjectionRepository {
     
     List<Task> findByStatus(Status status);
     
-    @Query("SELECT t FROM Task t WHERE t.status = :status ORDER BY t.priority DESC, t.createdAt ASC")
-    List<Task> findByStatusOrderByPriorityDesc(@Param("status") Status status);
+    boolean existsByTitle(String title);
     
-    @Query("SELECT t FROM Task t WHERE t.title LIKE %:keyword% OR t.description LIKE %:keyword%")
-    List<Task> findByKeyword(@Param("keyword") String keyword);
+    // Read paths build TaskResponse rows directly from a JPQL constructor expression, so no entity is
+    // attached to the persistence context, snapshotted for dirty checking or mapped afterwards.
+    String TASK_RESPONSE = "SELECT new com.example.TaskListAPI.dto.TaskResponse(t.id, t.title, t.description, "
+        + "t.dueDate, t.status, t.priority, t.createdAt, t.updatedAt, t.version) FROM Task t ";
     
-    @Query("SELECT t FROM Task t WHERE t.dueDate <= :date AND t.status NOT IN ('COMPLETED', 'CANCELLED')")
-    List<Task> findOverdueTasks(@Param("date") java.time.LocalDate date);
+    @Query(TASK_RESPONSE + "WHERE t.id = :id")
+    Optional<TaskResponse> findResponseById(@Param("id") UUID id);
     
-    boolean existsByTitle(String title);
+    // The WHERE ... ORDER BY ... LIMIT tails of the page queries below are shared with findResponses,
+    // which runs them selecting only the fields a client asked for.
+    
+    String BY_ID_IN = "WHERE t.id IN :ids";
+    
+    String FIRST_PAGE = "ORDER BY t.createdAt, t.id LIMIT :limit";
+    
+    String PAGE_AFTER = "WHERE (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id LIMIT :limit";
+    
+    String FIRST_PAGE_BY_STATUS = "WHERE t.status = :status ORDER BY t.priority DESC, t.createdAt, t.id LIMIT :limit";
+    
+    String PAGE_BY_STATUS_WITHIN_PRIORITY = "WHERE t.status = :status AND t.priority = :priority "
+        + "AND (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id LIMIT :limit";
+    
+    String PAGE_BY_STATUS_BELOW_PRIORITY = "WHERE t.status = :status AND t.priority < :priority "
+        + "ORDER BY t.priority DESC, t.createdAt, t.id LIMIT :limit";
+    
+    // The status list is written as literals so the planner can match the partial index on open tasks
+    String FIRST_OVERDUE_PAGE = "WHERE t.dueDate <= :date "
+        + "AND t.status NOT IN (com.example.TaskListAPI.enums.Status.COMPLETED, com.example.TaskListAPI.enums.Status.CANCELLED) "
+        + "ORDER BY t.createdAt, t.id LIMIT :limit";
+    
+    String OVERDUE_PAGE_AFTER = "WHERE t.dueDate <= :date "
+        + "AND t.status NOT IN (com.example.TaskListAPI.enums.Status.COMPLETED, com.example.TaskListAPI.enums.Status.CANCELLED) "
+        + "AND (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id LIMIT :limit";
+    
+    @Query(TASK_RESPONSE + BY_ID_IN)
+    List<TaskResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // Keyset pagination: every page is an index seek on (created_at, id) past the previous
+    // page's last row, so the cost of a page does not grow with its depth.
+    
+    @Query(TASK_RESPONSE + FIRST_PAGE)
+    List<TaskResponse> findFirstPage(@Param("limit") int limit);
+    
+    @Query(TASK_RESPONSE + PAGE_AFTER)
+    List<TaskResponse> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                     @Param("limit") int limit);
+    
+    // The status filter is ordered by (priority_rank DESC, created_at, id). A continuation page is the
+    // rest of the cursor's priority group, topped up from the lower priorities when that runs out;
+    // both are seeks on (status, priority_rank DESC, created_at, id).
+    
+    @Query(TASK_RESPONSE + FIRST_PAGE_BY_STATUS)
+    List<TaskResponse> findFirstPageByStatus(@Param("status") Status status, @Param("limit") int limit);
+    
+    @Query(TASK_RESPONSE + PAGE_BY_STATUS_WITHIN_PRIORITY)
+    List<TaskResponse> findPageByStatusWithinPriority(@Param("status") Status status,
+                                                      @Param("priority") Task.Priority priority,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") UUID id, @Param("limit") int limit);
+    
+    @Query(TASK_RESPONSE + PAGE_BY_STATUS_BELOW_PRIORITY)
+    List<TaskResponse> findPageByStatusBelowPriority(@Param("status") Status status,
+                                                     @Param("priority") Task.Priority priority,
+                                                     @Param("limit") int limit);
+    
+    // Full-text search runs against the GIN-indexed search_vector column and returns only ids and
+    // ranks; pages are ordered by (rank, id) descending and continue strictly below the cursor.
+    
+    @Query(value = "SELECT t.id AS id, ts_rank(t.search_vector, q) AS rank "
+        + "FROM tasks t, websearch_to_tsquery('english', :keyword) q "
+        + "WHERE t.search_vector @@ q AND ts_rank(t.search_vector, q) >= :minRank "
+        + "ORDER BY rank DESC, t.id DESC LIMIT :limit",
+        nativeQuery = true)
+    List<SearchHit> searchFirstPage(@Param("keyword") String keyword, @Param("minRank") float minRank,
+                                    @Param("limit") int limit);
+    
+    @Query(value = "SELECT t.id AS id, ts_rank(t.search_vector, q) AS rank "
+        + "FROM tasks t, websearch_to_tsquery('english', :keyword) q "
+        + "WHERE t.search_vector @@ q AND ts_rank(t.search_vector, q) >= :minRank "
+        + "AND (ts_rank(t.search_vector, q), t.id) < (:rank, :id) "
+        + "ORDER BY rank DESC, t.id DESC LIMIT :limit",
+        nativeQuery = true)
+    List<SearchHit> searchPageAfter(@Param("keyword") String keyword, @Param("minRank") float minRank,
+                                    @Param("rank") float rank, @Param("id") UUID id,
+                                    @Param("limit") int limit);
+    
+    @Query(TASK_RESPONSE + FIRST_OVERDUE_PAGE)
+    List<TaskResponse> findFirstOverduePage(@Param("date") LocalDate date, @Param("limit") int limit);
+    
+    @Query(TASK_RESPONSE + OVERDUE_PAGE_AFTER)
+    List<TaskResponse> findOverduePageAfter(@Param("date") LocalDate date,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                            @Param("limit") int limit);
+    
+    // Optimistic concurrency in one statement: the version check and the write happen together, so no
+    // row lock is held between reading a task and writing it. A null version updates unconditionally.
+    // updated_at is stamped by the BEFORE UPDATE trigger (V1). Both return the number of rows written.
+    
+    @Modifying
+    @Query("UPDATE Task t SET t.title = :title, t.description = :description, t.dueDate = :dueDate, "
+        + "t.status = :status, t.priority = :priority, t.version = t.version + 1 "
+        + "WHERE t.id = :id AND (:version IS NULL OR t.version = :version)")
+    int updateIfVersionMatches(@Param("id") UUID id, @Param("version") Long version,
+                               @Param("title") String title, @Param("description") String description,
+                               @Param("dueDate") LocalDate dueDate, @Param("status") Status status,
+                               @Param("priority") Task.Priority priority);
+    
+    // A status change returns the written row from the UPDATE itself, so there is no SELECT before or after it
+    @Query(value = "UPDATE tasks SET status = :status, version = version + 1 "
+        + "WHERE id = :id AND (CAST(:version AS BIGINT) IS NULL OR version = CAST(:version AS BIGINT)) "
+        + "RETURNING id, title, description, due_date AS \"dueDate\", status, priority_rank AS \"priorityRank\", "
+        + "created_at AS \"createdAt\", updated_at AS \"updatedAt\", version",
+        nativeQuery = true)
+    Optional<TaskRow> updateStatusReturning(@Param("id") UUID id, @Param("version") Long version,
+                                            @Param("status") String status);
+    
+    // Set-based status changes; tasks already in the target status are neither written nor returned.
+    // Each returns the (id, version) of every row it wrote, for the change feed.
+    
+    @Query(value = "UPDATE tasks SET status = :status, version = version + 1 "
+        + "WHERE id IN (:ids) AND status <> :status RETURNING id, version",
+        nativeQuery = true)
+    List<TaskVersion> updateStatusByIdIn(@Param("ids") Collection<UUID> ids, @Param("status") String status);
+    
+    @Query(value = "UPDATE tasks SET status = :status, version = version + 1 WHERE status <> :status "
+        + "AND (CAST(:current AS VARCHAR) IS NULL OR status = CAST(:current AS VARCHAR)) "
+        + "AND (:overdue = false OR (due_date <= :today AND status NOT IN ('COMPLETED', 'CANCELLED'))) "
+        + "RETURNING id, version",
+        nativeQuery = true)
+    List<TaskVersion> updateStatusMatching(@Param("current") String current, @Param("overdue") boolean overdue,
+                                           @Param("today") LocalDate today, @Param("status") String status);
+    
+    // Derived from the tasks rather than kept in a row every writer would lock (V11): each task adds the id
+    // of the transaction that last wrote it plus one, so every committed insert, update or delete moves it
+    @Query(value = "SELECT CAST(COALESCE(SUM(t.change_xid + 1), 0) % 9223372036854775807 AS BIGINT) FROM tasks t", nativeQuery = true)
+    long findCollectionVersion();
+    
+    String CHANGED_TASK = "SELECT new com.example.TaskListAPI.dto.ChangedTask(t.changeXid, t.id, t.title, "
+        + "t.description, t.dueDate, t.status, t.priority, t.createdAt, t.updatedAt, t.version) FROM Task t ";
+    
+    // Delta sync (V10) reads tasks and tombstones by (change_xid, id), both strictly below this watermark:
+    // the oldest id of a transaction still running. Below it every transaction has ended, so nothing can
+    // still appear there; transactions that have only read have no id and do not hold it back. Must be
+    // read before, and in another statement than, the rows it bounds.
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS BIGINT) AS xid, "
+        + "CAST(CURRENT_TIMESTAMP AS TIMESTAMP) AS \"takenAt\"",
+        nativeQuery = true)
+    SyncWatermark findSyncWatermark();
+    
+    @Query(CHANGED_TASK + "WHERE t.changeXid < :until ORDER BY t.changeXid, t.id LIMIT :limit")
+    List<ChangedTask> findChangedBefore(@Param("until") long until, @Param("limit") int limit);
+    
+    @Query(CHANGED_TASK + "WHERE (t.changeXid, t.id) > (:changeXid, :id) AND t.changeXid < :until "
+        + "ORDER BY t.changeXid, t.id LIMIT :limit")
+    List<ChangedTask> findChangedBetween(@Param("changeXid") long changeXid, @Param("id") UUID id,
+                                         @Param("until") long until, @Param("limit") int limit);
+    
+    @Query(value = "SELECT d.id AS id, d.change_xid AS \"changeXid\" FROM task_tombstones d "
+        + "WHERE (d.change_xid, d.id) > (:changeXid, :id) AND d.change_xid < :until "
+        + "ORDER BY d.change_xid, d.id LIMIT :limit",
+        nativeQuery = true)
+    List<Tombstone> findTombstonesBetween(@Param("changeXid") long changeXid, @Param("id") UUID id,
+                                          @Param("until") long until, @Param("limit") int limit);
+    
+    // Must be consumed inside a transaction: with autocommit off and a fetch size set, pgjdbc
+    // reads the result through a server-side cursor instead of buffering every row.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t")
+    Stream<Task> streamAll();
+    
+    interface SearchHit {
+        
+        UUID getId();
+        
+        float getRank();
+    }
+    
+    interface SyncWatermark {
+        
+        long getXid();
+        
+        LocalDateTime getTakenAt();
+    }
+    
+    interface Tombstone {
+        
+        UUID getId();
+        
+        long getChangeXid();
+    }
+    
+    interface TaskVersion {
+        
+        UUID getId();
+        
+        long getVersion();
+    }
+    
+    interface TaskRow {
+        
+        UUID getId();
+        
+        String getTitle();
+        
+        String getDescription();
+        
+        LocalDate getDueDate();
+        
+        Status getStatus();
+        
+        int getPriorityRank();
+        
+        LocalDateTime getCreatedAt();
+        
+        LocalDateTime getUpdatedAt();
+        
+        long getVersion();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.TaskListAPI.repository;
+
+import com.example.TaskListAPI.dto.TaskCursor;
+import com.example.TaskListAPI.dto.TaskQuery;
+import com.example.TaskListAPI.entity.Task;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the WHERE clause of {@code GET /api/tasks/query} from whichever criteria are set, so every
+ * combination runs as one statement.
+ */
+public final class TaskSpecifications {
+    
+    private TaskSpecifications() {
+    }
+    
+    public static Specification<Task> matching(TaskQuery query) {
+        List<Specification<Task>> criteria = new ArrayList<>();
+        if (query.getStatus() != null && !query.getStatus().isEmpty()) {
+            criteria.add((root, cq, cb) -> root.get("status").in(query.getStatus()));
+        }
+        if (query.getPriority() != null && !query.getPriority().isEmpty()) {
+            criteria.add((root, cq, cb) -> root.get("priority").in(query.getPriority()));
+        }
+        if (query.getDueFrom() != null) {
+            criteria.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("dueDate"), query.getDueFrom()));
+        }
+        if (query.getDueTo() != null) {
+            criteria.add((root, cq, cb) -> cb.lessThanOrEqualTo(root.get("dueDate"), query.getDueTo()));
+        }
+        if (query.getCreatedFrom() != null) {
+            criteria.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), query.getCreatedFrom()));
+        }
+        if (query.getCreatedTo() != null) {
+            criteria.add((root, cq, cb) -> cb.lessThan(root.get("createdAt"), query.getCreatedTo()));
+        }
+        if (query.getUpdatedFrom() != null) {
+            criteria.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), query.getUpdatedFrom()));
+        }
+        if (query.getUpdatedTo() != null) {
+            criteria.add((root, cq, cb) -> cb.lessThan(root.get("updatedAt"), query.getUpdatedTo()));
+        }
+        if (query.getKeyword() != null && !query.getKeyword().isBlank()) {
+            // value() binds the keyword as a parameter, where literal() would inline it into the SQL
+            criteria.add((root, cq, cb) -> cb.isTrue(cb.function(TaskFunctionContributor.SEARCH_MATCHES, Boolean.class,
+                root.get("id"), ((HibernateCriteriaBuilder) cb).value(query.getKeyword()))));
+        }
+        return Specification.allOf(criteria);
+    }
+    
+    /**
+     * Tasks after the cursor's row in the given order, as segments to read one after the other until a
+     * page is full. Each segment bounds the first sort key on its own, which lets Postgres start the index
+     * scan at the cursor, and then expands the rest into {@code k1 > v1 OR (k1 = v1 AND k2 > v2) OR ...}
+     * because the directions may differ per key.
+     * <p>
+     * A due date may be null, and nulls sort after every date (Postgres' default, which the indexes share).
+     * When the due date comes first, dated and undated tasks are separate segments: an index scan cannot
+     * start at {@code due_date >= ? OR due_date IS NULL}.
+     */
+    public static List<Specification<Task>> after(Sort sort, TaskCursor cursor) {
+        Sort.Order first = sort.iterator().next();
+        if (!"dueDate".equals(first.getProperty())) {
+            return List.of(notBefore(first, cursor).and(keyset(sort, cursor)));
+        }
+        Specification<Task> undated = (root, cq, cb) -> cb.isNull(root.get("dueDate"));
+        Specification<Task> dated = (root, cq, cb) -> cb.isNotNull(root.get("dueDate"));
+        if (cursor.dueDate() == null) {
+            Specification<Task> restOfUndated = undated.and(keyset(Sort.by(sort.stream().skip(1).toList()), cursor));
+            return first.isAscending() ? List.of(restOfUndated) : List.of(restOfUndated, dated);
+        }
+        Specification<Task> restOfDated = notBefore(first, cursor).and(keyset(sort, cursor));
+        return first.isAscending() ? List.of(restOfDated, undated) : List.of(restOfDated);
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Task> notBefore(Sort.Order order, TaskCursor cursor) {
+        return (root, cq, cb) -> {
+            Path<Comparable> path = root.get(order.getProperty());
+            Comparable value = valueOf(order.getProperty(), cursor);
+            return order.isAscending() ? cb.greaterThanOrEqualTo(path, value) : cb.lessThanOrEqualTo(path, value);
+        };
+    }
+    
+    private static Specification<Task> keyset(Sort sort, TaskCursor cursor) {
+        return (root, cq, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                Predicate beyond = beyond(root, cb, order, cursor);
+                if (beyond != null) {
+                    List<Predicate> alternative = new ArrayList<>(equalSoFar);
+                    alternative.add(beyond);
+                    alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+                }
+                equalSoFar.add(equal(root, cb, order.getProperty(), cursor));
+            }
+            return cb.or(alternatives.toArray(Predicate[]::new));
+        };
+    }
+    
+    // Rows strictly after the cursor on this key alone; null when no row can be
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(Root<Task> root, CriteriaBuilder cb, Sort.Order order, TaskCursor cursor) {
+        Path<Comparable> path = root.get(order.getProperty());
+        Comparable value = valueOf(order.getProperty(), cursor);
+        if (value == null) {
+            return order.isAscending() ? null : cb.isNotNull(path);
+        }
+        Predicate beyond = order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+        return order.isAscending() && "dueDate".equals(order.getProperty()) ? cb.or(beyond, cb.isNull(path)) : beyond;
+    }
+    
+    private static Predicate equal(Root<Task> root, CriteriaBuilder cb, String property, TaskCursor cursor) {
+        Object value = valueOf(property, cursor);
+        return value == null ? cb.isNull(root.get(property)) : cb.equal(root.get(property), value);
+    }
+    
+    private static Comparable<?> valueOf(String property, TaskCursor cursor) {
+        return switch (property) {
+            case "createdAt" -> cursor.createdAt();
+            case "updatedAt" -> cursor.updatedAt();
+            case "dueDate" -> cursor.dueDate();
+            case "priority" -> cursor.priority();
+            case "id" -> cursor.id();
+            default -> throw new IllegalArgumentException("Not a sort key: " + property);
+        };
+    }
+}
\ No newline at end of file
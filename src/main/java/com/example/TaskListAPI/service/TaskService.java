@@ -1,64 +1,277 @@
 package com.example.TaskListAPI.service;
 
+import com.example.TaskListAPI.cache.TaskCache;
+import com.example.TaskListAPI.changes.TaskChangeFeed;
+import com.example.TaskListAPI.dto.TaskBatchItemResult;
+import com.example.TaskListAPI.dto.TaskBatchResponse;
+import com.example.TaskListAPI.dto.TaskChangeEvent;
+import com.example.TaskListAPI.dto.TaskCursor;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskPageResponse;
+import com.example.TaskListAPI.dto.TaskQuery;
 import com.example.TaskListAPI.dto.TaskRequest;
 import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskStatusBulkRequest;
+import com.example.TaskListAPI.dto.TaskStatusBulkResponse;
+import com.example.TaskListAPI.dto.TaskStatusChange;
+import com.example.TaskListAPI.dto.TaskStatusFilter;
 import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.entity.UuidV7Generator;
 import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.exception.BatchTooLargeException;
+import com.example.TaskListAPI.exception.InvalidCursorException;
 import com.example.TaskListAPI.exception.TaskNotFoundException;
+import com.example.TaskListAPI.exception.TaskVersionConflictException;
+import com.example.TaskListAPI.ingest.TaskIngestionQueue;
 import com.example.TaskListAPI.mapper.TaskMapper;
 import com.example.TaskListAPI.repository.TaskRepository;
+import com.example.TaskListAPI.repository.TaskSpecifications;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed("task.service")
 public class TaskService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    // Matches hibernate.jdbc.batch_size so each flush sends whole JDBC batches
+    static final int INSERT_CHUNK_SIZE = 500;
+    
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TaskCache taskCache;
+    private final TaskIngestionQueue taskIngestionQueue;
+    private final TaskChangeFeed taskChangeFeed;
     
-    public TaskService(TaskRepository taskRepository, TaskMapper taskMapper) {
+    public TaskService(TaskRepository taskRepository, TaskMapper taskMapper, EntityManager entityManager,
+                       Validator validator, TaskCache taskCache, TaskIngestionQueue taskIngestionQueue,
+                       TaskChangeFeed taskChangeFeed) {
         this.taskRepository = taskRepository;
         this.taskMapper = taskMapper;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.taskCache = taskCache;
+        this.taskIngestionQueue = taskIngestionQueue;
+        this.taskChangeFeed = taskChangeFeed;
     }
     
     public TaskResponse createTask(TaskRequest taskRequest) {
         Task task = taskMapper.toEntity(taskRequest);
         Task savedTask = taskRepository.saveAndFlush(task);
+        taskChangeFeed.publish(TaskChangeEvent.created(savedTask.getId()));
         return taskMapper.toResponse(savedTask);
     }
     
+    /**
+     * Queues an already validated task for a group-committed insert and returns the id it will have.
+     * The task becomes readable once its batch commits, normally within milliseconds.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UUID submitTask(TaskRequest taskRequest) {
+        UUID id = UuidV7Generator.next();
+        taskIngestionQueue.submit(id, taskRequest);
+        return id;
+    }
+    
+    /**
+     * Validates every request on its own and inserts the valid ones in chunks. Ids come from
+     * {@link UuidV7Generator} in the JVM, so Hibernate can batch the inserts without a round trip per row;
+     * the persistence context is cleared after each chunk to keep it from growing with the batch.
+     */
+    public TaskBatchResponse createTasks(List<TaskRequest> taskRequests) {
+        if (taskRequests.size() > MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException("Batch must not exceed " + MAX_BATCH_SIZE + " tasks");
+        }
+        
+        TaskBatchItemResult[] results = new TaskBatchItemResult[taskRequests.size()];
+        List<Integer> chunkIndexes = new ArrayList<>(INSERT_CHUNK_SIZE);
+        List<Task> chunk = new ArrayList<>(INSERT_CHUNK_SIZE);
+        int failed = 0;
+        for (int i = 0; i < taskRequests.size(); i++) {
+            TaskRequest taskRequest = taskRequests.get(i);
+            Map<String, String> errors = validate(validator, taskRequest);
+            if (!errors.isEmpty()) {
+                results[i] = TaskBatchItemResult.invalid(i, errors);
+                failed++;
+                continue;
+            }
+            chunkIndexes.add(i);
+            chunk.add(taskMapper.toEntity(taskRequest));
+            if (chunk.size() == INSERT_CHUNK_SIZE) {
+                insertChunk(chunk, chunkIndexes, results);
+            }
+        }
+        insertChunk(chunk, chunkIndexes, results);
+        
+        return new TaskBatchResponse(results.length - failed, failed, List.of(results));
+    }
+    
+    // Also used by ReactiveTaskService, like pageSize, decodeCursor and toPage
+    static Map<String, String> validate(Validator validator, TaskRequest taskRequest) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (taskRequest == null) {
+            errors.put("task", "Task must not be null");
+            return errors;
+        }
+        for (ConstraintViolation<TaskRequest> violation : validator.validate(taskRequest)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+    
+    private void insertChunk(List<Task> chunk, List<Integer> chunkIndexes, TaskBatchItemResult[] results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Task> saved = taskRepository.saveAll(chunk);
+        entityManager.flush();
+        taskChangeFeed.publish(saved.stream().map(task -> TaskChangeEvent.created(task.getId())).toList());
+        for (int i = 0; i < saved.size(); i++) {
+            int index = chunkIndexes.get(i);
+            results[index] = TaskBatchItemResult.created(index, taskMapper.toResponse(saved.get(i)));
+        }
+        entityManager.clear();
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+    
+    /**
+     * Changes whenever any task is created, updated or deleted. List endpoints use it as their ETag,
+     * so it has to be read before the page it validates.
+     */
+    @Transactional(readOnly = true)
+    public long getCollectionVersion() {
+        return taskRepository.findCollectionVersion();
+    }
+    
+    /**
+     * Runs {@code read} in one transaction after reading the collection version, so the version never
+     * claims a write that {@code read} did not see.
+     */
+    @Transactional(readOnly = true)
+    public <T> Versioned<T> readAtCollectionVersion(Supplier<T> read) {
+        long collectionVersion = taskRepository.findCollectionVersion();
+        return new Versioned<>(collectionVersion, read.get());
+    }
+    
+    // Not read-only, so cache misses load from the primary. A replica still behind an invalidation would
+    // put the old task back into the cache.
     public TaskResponse getTaskById(UUID id) {
-        Task task = taskRepository.findById(id)
+        return taskCache.get(id, this::loadTask);
+    }
+    
+    private TaskResponse loadTask(UUID id) {
+        return taskRepository.findResponseById(id)
             .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
-        return taskMapper.toResponse(task);
     }
     
-    public List<TaskResponse> getAllTasks() {
-        List<Task> tasks = taskRepository.findAll();
-        return tasks.stream()
-            .map(taskMapper::toResponse)
-            .toList();
+    /**
+     * List reads take the {@link TaskFields} a client asked for. Anything short of all of them is read
+     * through {@link TaskRepository#findResponses}, which selects only those columns and the page's sort keys.
+     */
+    @Transactional(readOnly = true)
+    public TaskPageResponse getAllTasks(String cursor, int limit, TaskFields fields) {
+        int pageSize = pageSize(limit);
+        TaskFields selected = fields.with("createdAt");
+        List<TaskResponse> tasks;
+        if (cursor == null) {
+            tasks = fields.isAll()
+                ? taskRepository.findFirstPage(pageSize + 1)
+                : taskRepository.findResponses(selected, TaskRepository.FIRST_PAGE, Map.of("limit", pageSize + 1));
+        } else {
+            TaskCursor after = decodeCursor(cursor, TaskCursor::hasCreationKey);
+            tasks = fields.isAll()
+                ? taskRepository.findPageAfter(after.createdAt(), after.id(), pageSize + 1)
+                : taskRepository.findResponses(selected, TaskRepository.PAGE_AFTER,
+                    Map.of("createdAt", after.createdAt(), "id", after.id(), "limit", pageSize + 1));
+        }
+        return toPage(tasks, pageSize, TaskCursor::of);
     }
     
-    public List<TaskResponse> getTasksByStatus(Status status) {
-        List<Task> tasks = taskRepository.findByStatusOrderByPriorityDesc(status);
-        return tasks.stream()
-            .map(taskMapper::toResponse)
-            .toList();
+    /**
+     * Hands every task to {@code sink} in one pass over the table. Each entity is detached once
+     * it has been written, so the persistence context never holds more than the current row.
+     */
+    @Transactional(readOnly = true)
+    public void exportTasks(Consumer<TaskResponse> sink) {
+        try (Stream<Task> tasks = taskRepository.streamAll()) {
+            tasks.forEach(task -> {
+                sink.accept(taskMapper.toResponse(task));
+                entityManager.detach(task);
+            });
+        }
     }
     
-    public TaskResponse updateTask(UUID id, TaskRequest taskRequest) {
-        Task existingTask = taskRepository.findById(id)
-            .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
-        
-        taskMapper.updateEntity(existingTask, taskRequest);
-        Task updatedTask = taskRepository.save(existingTask);
-        return taskMapper.toResponse(updatedTask);
+    @Transactional(readOnly = true)
+    public TaskPageResponse getTasksByStatus(Status status, String cursor, int limit, TaskFields fields) {
+        int pageSize = pageSize(limit);
+        TaskFields selected = fields.with("createdAt", "priority");
+        List<TaskResponse> tasks;
+        if (cursor == null) {
+            tasks = fields.isAll()
+                ? taskRepository.findFirstPageByStatus(status, pageSize + 1)
+                : taskRepository.findResponses(selected, TaskRepository.FIRST_PAGE_BY_STATUS,
+                    Map.of("status", status, "limit", pageSize + 1));
+        } else {
+            TaskCursor after = decodeCursor(cursor, TaskCursor::hasPriorityKey);
+            tasks = new ArrayList<>(fields.isAll()
+                ? taskRepository.findPageByStatusWithinPriority(status, after.priority(), after.createdAt(),
+                    after.id(), pageSize + 1)
+                : taskRepository.findResponses(selected, TaskRepository.PAGE_BY_STATUS_WITHIN_PRIORITY,
+                    Map.of("status", status, "priority", after.priority(), "createdAt", after.createdAt(),
+                        "id", after.id(), "limit", pageSize + 1)));
+            if (tasks.size() <= pageSize) {
+                int remaining = pageSize + 1 - tasks.size();
+                tasks.addAll(fields.isAll()
+                    ? taskRepository.findPageByStatusBelowPriority(status, after.priority(), remaining)
+                    : taskRepository.findResponses(selected, TaskRepository.PAGE_BY_STATUS_BELOW_PRIORITY,
+                        Map.of("status", status, "priority", after.priority(), "limit", remaining)));
+            }
+        }
+        return toPage(tasks, pageSize, TaskCursor::withPriority);
+    }
+    
+    /**
+     * Replaces the task's fields in a single conditional UPDATE. With an {@code expectedVersion} the
+     * write only happens if nobody else has written the task since that version was read.
+     */
+    public TaskResponse updateTask(UUID id, TaskRequest taskRequest, Long expectedVersion) {
+        int updated = taskRepository.updateIfVersionMatches(id, expectedVersion, taskRequest.getTitle(),
+            taskRequest.getDescription(), taskRequest.getDueDate(), taskRequest.getStatus(), taskRequest.getPriority());
+        if (updated == 0) {
+            throw writeRejected(id, expectedVersion);
+        }
+        taskCache.invalidate(id);
+        TaskResponse updatedTask = loadTask(id);
+        taskChangeFeed.publish(TaskChangeEvent.updated(id, updatedTask.getVersion()));
+        return updatedTask;
     }
     
     public void deleteTask(UUID id) {
@@ -66,28 +279,173 @@ public class TaskService {
             throw new TaskNotFoundException("Task not found with id: " + id);
         }
         taskRepository.deleteById(id);
+        taskCache.invalidate(id);
+        taskChangeFeed.publish(TaskChangeEvent.deleted(id));
     }
     
-    public List<TaskResponse> searchTasks(String keyword) {
-        List<Task> tasks = taskRepository.findByKeyword(keyword);
-        return tasks.stream()
-            .map(taskMapper::toResponse)
+    /**
+     * Ranked full-text search. The page of (id, rank) hits comes from the search index; only those
+     * rows are then loaded by primary key, and returned in rank order.
+     */
+    @Transactional(readOnly = true)
+    public TaskPageResponse searchTasks(String keyword, Float minRank, String cursor, int limit, TaskFields fields) {
+        int pageSize = pageSize(limit);
+        float rankCutoff = minRank != null ? minRank : 0f;
+        List<TaskRepository.SearchHit> hits;
+        if (cursor == null) {
+            hits = taskRepository.searchFirstPage(keyword, rankCutoff, pageSize + 1);
+        } else {
+            TaskCursor after = decodeCursor(cursor, TaskCursor::hasRankKey);
+            hits = taskRepository.searchPageAfter(keyword, rankCutoff, after.rank(), after.id(), pageSize + 1);
+        }
+        
+        boolean hasMore = hits.size() > pageSize;
+        List<TaskRepository.SearchHit> page = hasMore ? hits.subList(0, pageSize) : hits;
+        Map<UUID, TaskResponse> tasksById = new HashMap<>();
+        List<UUID> ids = page.stream().map(TaskRepository.SearchHit::getId).toList();
+        List<TaskResponse> tasks = fields.isAll()
+            ? taskRepository.findResponsesByIdIn(ids)
+            : taskRepository.findResponses(fields, TaskRepository.BY_ID_IN, Map.of("ids", ids));
+        tasks.forEach(task -> tasksById.put(task.getId(), task));
+        List<TaskResponse> items = page.stream()
+            .map(hit -> tasksById.get(hit.getId()))
+            .filter(Objects::nonNull)
             .toList();
+        String nextCursor = null;
+        if (hasMore) {
+            TaskRepository.SearchHit last = page.get(page.size() - 1);
+            nextCursor = TaskCursor.ranked(last.getRank(), last.getId()).encode();
+        }
+        return new TaskPageResponse(items, nextCursor, pageSize);
     }
     
-    public List<TaskResponse> getOverdueTasks() {
-        List<Task> tasks = taskRepository.findOverdueTasks(LocalDate.now());
-        return tasks.stream()
-            .map(taskMapper::toResponse)
-            .toList();
+    @Transactional(readOnly = true)
+    public TaskPageResponse getOverdueTasks(String cursor, int limit, TaskFields fields) {
+        int pageSize = pageSize(limit);
+        LocalDate today = LocalDate.now();
+        TaskFields selected = fields.with("createdAt");
+        List<TaskResponse> tasks;
+        if (cursor == null) {
+            tasks = fields.isAll()
+                ? taskRepository.findFirstOverduePage(today, pageSize + 1)
+                : taskRepository.findResponses(selected, TaskRepository.FIRST_OVERDUE_PAGE,
+                    Map.of("date", today, "limit", pageSize + 1));
+        } else {
+            TaskCursor after = decodeCursor(cursor, TaskCursor::hasCreationKey);
+            tasks = fields.isAll()
+                ? taskRepository.findOverduePageAfter(today, after.createdAt(), after.id(), pageSize + 1)
+                : taskRepository.findResponses(selected, TaskRepository.OVERDUE_PAGE_AFTER,
+                    Map.of("date", today, "createdAt", after.createdAt(), "id", after.id(), "limit", pageSize + 1));
+        }
+        return toPage(tasks, pageSize, TaskCursor::of);
     }
     
-    public TaskResponse updateTaskStatus(UUID id, Status status) {
-        Task task = taskRepository.findById(id)
-            .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
-        
-        task.setStatus(status);
-        Task updatedTask = taskRepository.save(task);
-        return taskMapper.toResponse(updatedTask);
+    /**
+     * Any combination of criteria and sort keys, as one query. Pages are keyset paginated like the other
+     * list endpoints; the cursor holds every sortable value of the last row, so it is only meaningful
+     * with the criteria and sort it came from. A page that crosses from dated to undated tasks, when sorted
+     * by due date, takes a second query (see {@link TaskSpecifications#after}).
+     */
+    @Transactional(readOnly = true)
+    public TaskPageResponse queryTasks(TaskQuery query, String cursor, int limit, TaskFields fields) {
+        query.validate();
+        int pageSize = pageSize(limit);
+        Sort sort = query.toSort();
+        Specification<Task> where = TaskSpecifications.matching(query);
+        List<Specification<Task>> segments = cursor == null
+            ? List.of(where)
+            : TaskSpecifications.after(sort, decodeCursor(cursor, TaskCursor::hasSortableKeys)).stream()
+                .map(where::and)
+                .toList();
+        TaskFields selected = fields.with(TaskQuery.SORTABLE.toArray(String[]::new));
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (Specification<Task> segment : segments) {
+            if (tasks.size() > pageSize) {
+                break;
+            }
+            tasks.addAll(taskRepository.findResponses(selected, segment, sort, pageSize + 1 - tasks.size()));
+        }
+        return toPage(tasks, pageSize, TaskCursor::sortable);
+    }
+    
+    public TaskResponse updateTaskStatus(UUID id, Status status, Long expectedVersion) {
+        TaskResponse updatedTask = taskRepository.updateStatusReturning(id, expectedVersion, status.name())
+            .map(TaskService::toResponse)
+            .orElseThrow(() -> writeRejected(id, expectedVersion));
+        taskCache.invalidate(id);
+        taskChangeFeed.publish(TaskChangeEvent.updated(id, updatedTask.getVersion()));
+        return updatedTask;
+    }
+    
+    /**
+     * Applies a bulk status change as set-based UPDATEs: explicit changes take one statement per
+     * distinct target status, a filter takes one statement. Only tasks whose status actually changes
+     * are written and counted.
+     */
+    public TaskStatusBulkResponse updateTaskStatuses(TaskStatusBulkRequest request) {
+        List<TaskRepository.TaskVersion> updated = new ArrayList<>();
+        if (request.getChanges() != null) {
+            if (request.getChanges().size() > MAX_BATCH_SIZE) {
+                throw new BatchTooLargeException("Batch must not exceed " + MAX_BATCH_SIZE + " status changes");
+            }
+            Map<Status, List<UUID>> idsByStatus = new EnumMap<>(Status.class);
+            for (TaskStatusChange change : request.getChanges()) {
+                idsByStatus.computeIfAbsent(change.getStatus(), status -> new ArrayList<>()).add(change.getId());
+            }
+            for (Map.Entry<Status, List<UUID>> group : idsByStatus.entrySet()) {
+                updated.addAll(taskRepository.updateStatusByIdIn(group.getValue(), group.getKey().name()));
+            }
+        } else {
+            TaskStatusFilter filter = request.getFilter();
+            String current = filter.getStatus() != null ? filter.getStatus().name() : null;
+            updated = taskRepository.updateStatusMatching(current, filter.isOverdue(), LocalDate.now(),
+                request.getStatus().name());
+        }
+        if (!updated.isEmpty()) {
+            taskCache.invalidateAll();
+            taskChangeFeed.publish(updated.stream()
+                .map(task -> TaskChangeEvent.updated(task.getId(), task.getVersion()))
+                .toList());
+        }
+        return new TaskStatusBulkResponse(updated.size());
+    }
+    
+    // Nothing written means the task is gone or its version moved on; only this failure path
+    // pays for the extra lookup that tells the two apart.
+    private RuntimeException writeRejected(UUID id, Long expectedVersion) {
+        if (!taskRepository.existsById(id)) {
+            return new TaskNotFoundException("Task not found with id: " + id);
+        }
+        return new TaskVersionConflictException("Task " + id + " has changed since version " + expectedVersion);
+    }
+    
+    private static TaskResponse toResponse(TaskRepository.TaskRow row) {
+        return new TaskResponse(row.getId(), row.getTitle(), row.getDescription(), row.getDueDate(), row.getStatus(),
+            Task.Priority.fromRank(row.getPriorityRank()), row.getCreatedAt(), row.getUpdatedAt(), row.getVersion());
+    }
+    
+    static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    static TaskCursor decodeCursor(String cursor, Predicate<TaskCursor> hasSortKeys) {
+        TaskCursor decoded = TaskCursor.decode(cursor);
+        if (!hasSortKeys.test(decoded)) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        return decoded;
+    }
+    
+    // Pages are fetched with one extra row: if it comes back there is a next page, and the
+    // cursor points at the last row actually returned.
+    static TaskPageResponse toPage(List<TaskResponse> tasks, int pageSize,
+                                   Function<TaskResponse, TaskCursor> cursorOf) {
+        boolean hasMore = tasks.size() > pageSize;
+        List<TaskResponse> page = hasMore ? tasks.subList(0, pageSize) : tasks;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new TaskPageResponse(page, nextCursor, pageSize);
+    }
+    
+    public record Versioned<T>(long collectionVersion, T value) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.example.TaskListAPI.sync;
+
+import com.example.TaskListAPI.dto.ChangedTask;
+import com.example.TaskListAPI.dto.SyncToken;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskSyncResponse;
+import com.example.TaskListAPI.exception.SyncTokenExpiredException;
+import com.example.TaskListAPI.repository.TaskRepository;
+import com.example.TaskListAPI.service.TaskService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Delta sync for offline clients: the tasks created or updated and the ids deleted since a
+ * {@link SyncToken}, in change order. Each page is two index range scans, one on tasks and one on
+ * tombstones, so its cost depends on how much changed rather than on how many tasks there are.
+ * <p>
+ * Transactions are not read-only so that they stay on the primary: the sync watermark comes from the
+ * transactions running there, and a replica may not have replayed everything below it yet.
+ */
+@Service
+@Transactional
+@Timed("task.sync")
+public class TaskSyncService {
+    
+    // Postgres orders UUIDs by their bytes, which is an unsigned comparison of the two halves
+    private static final Comparator<SyncEntry> CHANGE_ORDER = Comparator.comparingLong(SyncEntry::changeXid)
+        .thenComparing(SyncEntry::id, (a, b) -> {
+            int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+            return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+        });
+    
+    private final TaskRepository taskRepository;
+    private final Duration tombstoneRetention;
+    
+    public TaskSyncService(TaskRepository taskRepository,
+                           @Value("${task.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.taskRepository = taskRepository;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+    
+    /**
+     * Returns up to {@code limit} changes after {@code since}, or every task when there is no token.
+     * A token older than the tombstone retention period is rejected: deletions since then may have
+     * been compacted away, and the client has to sync from scratch.
+     */
+    public TaskSyncResponse syncTasks(String since, int limit) {
+        int pageSize = pageSize(limit);
+        TaskRepository.SyncWatermark watermark = taskRepository.findSyncWatermark();
+        SyncToken after = resolve(since, watermark, tombstoneRetention);
+        List<ChangedTask> tasks = after.changeXid() == null
+            ? taskRepository.findChangedBefore(watermark.getXid(), pageSize + 1)
+            : taskRepository.findChangedBetween(after.changeXid(), after.id(), watermark.getXid(), pageSize + 1);
+        List<TaskRepository.Tombstone> tombstones = hasTombstones(after, watermark)
+            ? taskRepository.findTombstonesBetween(after.tombstoneFloor(), tombstonesAfter(after), watermark.getXid(),
+                pageSize + 1)
+            : List.of();
+        return toResponse(after, watermark, tasks, tombstones, pageSize);
+    }
+    
+    // The steps below are shared with ReactiveTaskService, which runs the same queries over R2DBC
+    
+    public static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, TaskService.MAX_PAGE_SIZE));
+    }
+    
+    public static SyncToken resolve(String since, TaskRepository.SyncWatermark watermark, Duration tombstoneRetention) {
+        SyncToken after = since != null
+            ? SyncToken.decode(since)
+            : SyncToken.fullSync(watermark.getXid(), watermark.getTakenAt());
+        if (after.issuedAt().isBefore(watermark.getTakenAt().minus(tombstoneRetention))) {
+            throw new SyncTokenExpiredException("Sync token is older than " + tombstoneRetention.toDays()
+                + " days, sync again without one");
+        }
+        return after;
+    }
+    
+    public static boolean hasTombstones(SyncToken after, TaskRepository.SyncWatermark watermark) {
+        return after.tombstoneFloor() < watermark.getXid();
+    }
+    
+    // Id to read tombstones after, at the tombstone floor
+    public static UUID tombstonesAfter(SyncToken after) {
+        boolean pastFloor = after.changeXid() == null || after.tombstoneFloor() > after.changeXid();
+        return pastFloor ? SyncToken.NIL : after.id();
+    }
+    
+    /**
+     * Merges changed tasks and tombstones, each read with {@code pageSize + 1} rows, into one page in
+     * change order. A page that does not reach the watermark keeps the time of the sync it continues.
+     */
+    public static TaskSyncResponse toResponse(SyncToken after, TaskRepository.SyncWatermark watermark,
+                                              List<ChangedTask> tasks,
+                                              List<? extends TaskRepository.Tombstone> tombstones, int pageSize) {
+        List<SyncEntry> entries = new ArrayList<>();
+        tasks.forEach(changed -> entries.add(new SyncEntry(changed.changeXid(), changed.task().getId(), changed.task())));
+        tombstones.forEach(tombstone -> entries.add(new SyncEntry(tombstone.getChangeXid(), tombstone.getId(), null)));
+        
+        entries.sort(CHANGE_ORDER);
+        boolean hasMore = entries.size() > pageSize;
+        List<SyncEntry> page = hasMore ? entries.subList(0, pageSize) : entries;
+        List<TaskResponse> changed = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        for (SyncEntry entry : page) {
+            if (entry.task() != null) {
+                changed.add(entry.task());
+            } else {
+                deleted.add(entry.id());
+            }
+        }
+        SyncToken next;
+        if (hasMore) {
+            SyncEntry last = page.get(page.size() - 1);
+            next = new SyncToken(last.changeXid(), last.id(), after.tombstonesFrom(), after.issuedAt());
+        } else {
+            next = SyncToken.caughtUp(watermark.getXid(), watermark.getTakenAt());
+        }
+        return new TaskSyncResponse(changed, deleted, next.encode(), hasMore);
+    }
+    
+    private record SyncEntry(long changeXid, UUID id, TaskResponse task) {
+    }
+}
\ No newline at end of file
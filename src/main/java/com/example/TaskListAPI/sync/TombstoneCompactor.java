@@ -0,0 +1,84 @@
+package com.example.TaskListAPI.sync;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes tombstones once they are past the retention period that {@link TaskSyncService} accepts
+ * sync tokens for. They are kept for one extra interval, so a token accepted just before a
+ * compaction still finds every tombstone it needs. Every instance compacts; the deletes are idempotent.
+ */
+@Component
+public class TombstoneCompactor implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(TombstoneCompactor.class);
+    private static final String COMPACT_SQL = "DELETE FROM task_tombstones "
+        + "WHERE deleted_at < CAST(CURRENT_TIMESTAMP AS TIMESTAMP) - ? * INTERVAL '1 second'";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final Duration interval;
+    private final Counter compacted;
+    
+    private volatile boolean running;
+    private ScheduledExecutorService executor;
+    
+    public TombstoneCompactor(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${task.sync.tombstone-retention:30d}") Duration retention,
+                              @Value("${task.sync.compaction-interval:1h}") Duration interval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+        this.interval = interval;
+        this.compacted = Counter.builder("task.sync.tombstones.compacted")
+            .description("Tombstones of deleted tasks removed after the retention period")
+            .register(meterRegistry);
+    }
+    
+    public int compact() {
+        int deleted = jdbcTemplate.update(COMPACT_SQL, retention.plus(interval).toSeconds());
+        compacted.increment(deleted);
+        return deleted;
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tombstone-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (RuntimeException ex) {
+                log.warn("Tombstone compaction failed, retrying in {}", interval, ex);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
\ No newline at end of file
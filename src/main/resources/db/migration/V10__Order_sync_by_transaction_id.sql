@@ -0,0 +1,34 @@
+-- Delta sync used to page by updated_at below the start of the oldest transaction on the database, so one
+-- long transaction (an export, an idle session) held back every client. Changes are now ordered by the id of
+-- the transaction that wrote them. Sync reads below the oldest transaction id still running
+-- (pg_snapshot_xmin): everything there has committed or rolled back, and transactions that have not written
+-- anything have no id, so they hold nothing back. Rows written before this migration sort first, at 0.
+ALTER TABLE tasks ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE task_tombstones ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+
+-- xid8 has no cast to bigint, but its text form is the 64-bit (epoch-extended) number, which never wraps
+CREATE OR REPLACE FUNCTION set_task_change_xid()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_xid = CAST(CAST(pg_current_xact_id() AS text) AS BIGINT);
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER set_task_change_xid
+    BEFORE INSERT OR UPDATE ON tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION set_task_change_xid();
+
+CREATE OR REPLACE FUNCTION record_task_tombstones()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO task_tombstones (id, deleted_at, change_xid)
+    SELECT id, CURRENT_TIMESTAMP, CAST(CAST(pg_current_xact_id() AS text) AS BIGINT) FROM deleted_tasks
+    ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at, change_xid = EXCLUDED.change_xid;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE INDEX idx_tasks_change_xid_id ON tasks(change_xid, id);
+CREATE INDEX idx_task_tombstones_change_xid_id ON task_tombstones(change_xid, id);
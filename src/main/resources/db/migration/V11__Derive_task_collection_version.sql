@@ -0,0 +1,9 @@
+-- The collection version used to be a single counter row that a trigger bumped on every write, so every
+-- writing transaction held that row's lock until it committed and writers queued behind each other.
+-- It is now derived from the tasks themselves: the sum over all tasks of the id of the transaction that
+-- last wrote them, plus one per task (idx_tasks_change_xid_id covers it). Any committed insert, update or
+-- delete moves the sum, whatever order transactions commit in; max(change_xid) would miss a transaction
+-- that commits after a newer one.
+DROP TRIGGER bump_task_collection_version ON tasks;
+DROP FUNCTION bump_task_collection_version();
+DROP TABLE task_collection_version;
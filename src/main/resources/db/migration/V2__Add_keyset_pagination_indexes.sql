@@ -0,0 +1,10 @@
+-- Keyset pagination seeks on (created_at, id); the old created_at index is a prefix of it
+CREATE INDEX idx_tasks_created_at_id ON tasks(created_at, id);
+DROP INDEX idx_tasks_created_at;
+
+-- Status filter pages are ordered by priority, then creation time
+CREATE INDEX idx_tasks_status_priority_created_at_id ON tasks(status, priority DESC, created_at, id);
+
+-- Overdue pages only ever look at open tasks
+CREATE INDEX idx_tasks_open_created_at_id ON tasks(created_at, id)
+    WHERE status NOT IN ('COMPLETED', 'CANCELLED');
@@ -0,0 +1,23 @@
+-- Store priority as a sortable rank (LOW = 1, MEDIUM = 2, HIGH = 3) instead of its name,
+-- which sorted alphabetically (MEDIUM > LOW > HIGH)
+ALTER TABLE tasks ADD COLUMN priority_rank SMALLINT;
+
+-- Backfilling is not a user edit, so keep updated_at as it is
+ALTER TABLE tasks DISABLE TRIGGER update_tasks_updated_at;
+UPDATE tasks SET priority_rank = CASE priority
+    WHEN 'LOW' THEN 1
+    WHEN 'MEDIUM' THEN 2
+    WHEN 'HIGH' THEN 3
+END;
+ALTER TABLE tasks ENABLE TRIGGER update_tasks_updated_at;
+
+ALTER TABLE tasks ALTER COLUMN priority_rank SET NOT NULL;
+ALTER TABLE tasks ADD CONSTRAINT chk_tasks_priority_rank CHECK (priority_rank BETWEEN 1 AND 3);
+
+-- Also drops idx_tasks_priority and idx_tasks_status_priority_created_at_id
+ALTER TABLE tasks DROP COLUMN priority;
+
+-- Status filter pages are read straight off this index in (priority, age) order;
+-- it also covers every lookup the single-column status index served
+CREATE INDEX idx_tasks_status_priority_rank_created_at_id ON tasks(status, priority_rank DESC, created_at, id);
+DROP INDEX idx_tasks_status;
@@ -0,0 +1,22 @@
+-- Version of the tasks collection as a whole, used as the ETag of list responses.
+-- It is bumped once per statement that writes tasks and read like any other row, so a reader
+-- never sees a version whose changes are not yet visible to it.
+CREATE TABLE task_collection_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO task_collection_version (id, version) VALUES (1, 0);
+
+CREATE OR REPLACE FUNCTION bump_task_collection_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE task_collection_version SET version = version + 1 WHERE id = 1;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER bump_task_collection_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON tasks
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_task_collection_version();
@@ -0,0 +1,3 @@
+-- Optimistic concurrency: every write increments version, and conditional writes check it
+-- in their WHERE clause. Adding a column with a constant default does not rewrite the table.
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- Time-ordered UUIDs (RFC 9562 version 7) for rows inserted without an id, matching what the
+-- application generates. A random version 4 UUID gets its first 48 bits replaced with the Unix
+-- millisecond timestamp, and its version bits changed from 4 to 7. Existing ids are left as they are.
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS uuid AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                    PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                    FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,36 @@
+-- Delta sync reads tasks changed since a point in time, so updated_at has to come from the database
+-- clock on inserts as well as updates (Hibernate used to send the application's clock on insert)
+DROP TRIGGER update_tasks_updated_at ON tasks;
+
+CREATE TRIGGER update_tasks_updated_at
+    BEFORE INSERT OR UPDATE ON tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE INDEX idx_tasks_updated_at_id ON tasks(updated_at, id);
+
+-- Ids of deleted tasks, so sync can report deletions. Rows older than the retention period are
+-- compacted away by the application; TRUNCATE does not leave tombstones.
+CREATE TABLE task_tombstones (
+    id UUID PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_task_tombstones_deleted_at_id ON task_tombstones(deleted_at, id);
+
+CREATE OR REPLACE FUNCTION record_task_tombstones()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO task_tombstones (id, deleted_at)
+    SELECT id, CURRENT_TIMESTAMP FROM deleted_tasks
+    ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Statement-level with a transition table, so a bulk delete writes its tombstones in one INSERT
+CREATE TRIGGER record_task_tombstones
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS deleted_tasks
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_task_tombstones();
@@ -0,0 +1,15 @@
+-- GET /api/tasks/query combines criteria freely; these cover the combinations clients send most.
+-- Status sets and due-date ranges are the common filters, creation time and due date the common orders.
+
+-- One status in default (creation) order, read off the index without a sort
+CREATE INDEX idx_tasks_status_created_at_id ON tasks(status, created_at, id);
+
+-- Status with a due-date range, or ordered by due date
+CREATE INDEX idx_tasks_status_due_date_id ON tasks(status, due_date, id);
+
+-- Priority with a due-date range, or ordered by due date
+CREATE INDEX idx_tasks_priority_rank_due_date_id ON tasks(priority_rank, due_date, id);
+
+-- Due-date ranges and due-date order need the id as the keyset tiebreak; the old index is a prefix of this one
+CREATE INDEX idx_tasks_due_date_id ON tasks(due_date, id);
+DROP INDEX idx_tasks_due_date;
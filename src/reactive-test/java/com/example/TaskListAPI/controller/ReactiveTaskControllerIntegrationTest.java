@@ -0,0 +1,264 @@
+package com.example.TaskListAPI.controller;
+
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "reactive"})
+class ReactiveTaskControllerIntegrationTest {
+
+    private static final String TITLE_PREFIX = "Reactive Task ";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TaskResponse task;
+
+    @BeforeEach
+    void setUp() {
+        task = create(new TaskRequest(TITLE_PREFIX + "0", "Streamed from R2DBC", LocalDate.now().minusDays(1),
+            Status.PENDING, Task.Priority.MEDIUM));
+    }
+
+    // Requests commit on their own here, so there is no test transaction to roll them back
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tasks WHERE title LIKE ?", TITLE_PREFIX + "%");
+    }
+
+    @Test
+    void createTask_ShouldReturnBadRequest_WhenInvalidRequest() {
+        webTestClient.post().uri("/api/tasks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new TaskRequest())
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("Validation failed")
+            .jsonPath("$.errors.title").exists();
+    }
+
+    @Test
+    void createTasks_ShouldReportEachInvalidTask_WhenSomeTasksInvalid() {
+        List<TaskRequest> batch = List.of(
+            new TaskRequest(TITLE_PREFIX + "1", null, null, Status.PENDING, Task.Priority.LOW),
+            new TaskRequest(),
+            new TaskRequest(TITLE_PREFIX + "2", "Dated", LocalDate.now(), Status.COMPLETED, Task.Priority.HIGH));
+
+        webTestClient.post().uri("/api/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(batch)
+            .exchange()
+            .expectStatus().isEqualTo(207)
+            .expectBody()
+            .jsonPath("$.created").isEqualTo(2)
+            .jsonPath("$.results[1].outcome").isEqualTo("INVALID")
+            .jsonPath("$.results[2].task.dueDate").isEqualTo(LocalDate.now().toString());
+    }
+
+    @Test
+    void getTaskById_ShouldReturnNotModified_WhenETagMatches() {
+        webTestClient.get().uri("/api/tasks/{id}", task.getId())
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("ETag", "\"0\"")
+            .expectBody()
+            .jsonPath("$.title").isEqualTo(task.getTitle());
+
+        webTestClient.get().uri("/api/tasks/{id}", task.getId())
+            .header("If-None-Match", "\"0\"")
+            .exchange()
+            .expectStatus().isNotModified();
+    }
+
+    @Test
+    void getTaskById_ShouldReturnNotFound_WhenTaskDoesNotExist() {
+        webTestClient.get().uri("/api/tasks/{id}", "00000000-0000-7000-8000-000000000000")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void updateTask_ShouldReturnPreconditionFailed_WhenIfMatchIsStale() {
+        TaskRequest update = new TaskRequest(TITLE_PREFIX + "0 updated", null, null, Status.IN_PROGRESS,
+            Task.Priority.HIGH);
+
+        webTestClient.put().uri("/api/tasks/{id}", task.getId())
+            .header("If-Match", "\"5\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(update)
+            .exchange()
+            .expectStatus().isEqualTo(412);
+
+        webTestClient.put().uri("/api/tasks/{id}", task.getId())
+            .header("If-Match", "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(update)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("ETag", "\"1\"")
+            .expectBody()
+            .jsonPath("$.description").doesNotExist();
+    }
+
+    @Test
+    void getAllTasks_ShouldWalkEveryTaskOnce_WhenFollowingNextCursor() throws Exception {
+        for (int i = 1; i <= 4; i++) {
+            create(new TaskRequest(TITLE_PREFIX + i, null, null, Status.PENDING, Task.Priority.LOW));
+        }
+        long total = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks", Long.class);
+
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            JsonNode page = getPage("/api/tasks?limit=2" + (cursor != null ? "&cursor=" + cursor : ""));
+            assertThat(page.get("items").size()).isLessThanOrEqualTo(2);
+            page.get("items").forEach(item -> seen.add(item.get("id").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize((int) total);
+    }
+
+    @Test
+    void queryTasks_ShouldFollowCursorAcrossUndatedTasks() throws Exception {
+        create(new TaskRequest(TITLE_PREFIX + "1", null, null, Status.PENDING, Task.Priority.HIGH));
+        create(new TaskRequest(TITLE_PREFIX + "2", null, LocalDate.now(), Status.PENDING, Task.Priority.HIGH));
+        create(new TaskRequest(TITLE_PREFIX + "3", null, null, Status.PENDING, Task.Priority.HIGH));
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = getPage("/api/tasks/query?keyword=" + task.getTitle().split(" ")[0]
+                + "&status=PENDING&priority=HIGH,MEDIUM&sort=dueDate&fields=title&limit=1"
+                + (cursor != null ? "&cursor=" + cursor : ""));
+            page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+            assertThat(page.get("items").get(0).has("status")).isFalse();
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        // Dated tasks first, then those without a due date
+        assertThat(titles).containsExactly(TITLE_PREFIX + "0", TITLE_PREFIX + "2", TITLE_PREFIX + "1",
+            TITLE_PREFIX + "3");
+    }
+
+    @Test
+    void getAllTasks_ShouldReturnNotModified_WhenCollectionUnchanged() {
+        String eTag = webTestClient.get().uri("/api/tasks?limit=1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("Cache-Control", "no-cache")
+            .returnResult(String.class)
+            .getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/tasks?limit=1")
+            .header("If-None-Match", eTag)
+            .exchange()
+            .expectStatus().isNotModified();
+
+        create(new TaskRequest(TITLE_PREFIX + "1", null, null, Status.PENDING, Task.Priority.LOW));
+
+        webTestClient.get().uri("/api/tasks?limit=1")
+            .header("If-None-Match", eTag)
+            .exchange()
+            .expectStatus().isOk();
+    }
+
+    @Test
+    void getOverdueTasks_ShouldReturnSmile_WhenRequested() throws Exception {
+        byte[] body = webTestClient.get().uri("/api/tasks/overdue?limit=500")
+            .accept(MediaType.parseMediaType("application/x-jackson-smile"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType("application/x-jackson-smile")
+            .expectBody(byte[].class)
+            .returnResult().getResponseBody();
+
+        JsonNode page = new ObjectMapper(new SmileFactory()).readTree(body);
+        List<String> titles = new ArrayList<>();
+        page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+        assertThat(titles).contains(task.getTitle());
+    }
+
+    @Test
+    void getAllTasks_ShouldReturnNotAcceptable_WhenFormatUnsupported() {
+        webTestClient.get().uri("/api/tasks")
+            .accept(MediaType.TEXT_PLAIN)
+            .exchange()
+            .expectStatus().isEqualTo(406);
+    }
+
+    @Test
+    void exportTasks_ShouldWriteOneTaskPerLine() {
+        String body = webTestClient.get().uri("/api/tasks/export")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+            .expectBody(String.class)
+            .returnResult().getResponseBody();
+
+        long total = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks", Long.class);
+        assertThat(body.lines().count()).isEqualTo(total);
+        assertThat(body).contains("\"title\":\"" + task.getTitle() + "\"");
+    }
+
+    @Test
+    void deleteTask_ShouldReturnNotFound_WhenDeletedTwice() {
+        webTestClient.delete().uri("/api/tasks/{id}", task.getId())
+            .exchange()
+            .expectStatus().isNoContent();
+
+        webTestClient.delete().uri("/api/tasks/{id}", task.getId())
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    private TaskResponse create(TaskRequest request) {
+        return webTestClient.post().uri("/api/tasks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(TaskResponse.class)
+            .returnResult().getResponseBody();
+    }
+
+    private JsonNode getPage(String uri) throws Exception {
+        byte[] body = webTestClient.get().uri(uri)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class)
+            .returnResult().getResponseBody();
+        return objectMapper.readTree(body);
+    }
+}
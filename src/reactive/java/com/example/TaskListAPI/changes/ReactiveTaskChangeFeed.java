@@ -0,0 +1,166 @@
+package com.example.TaskListAPI.changes;
+
+import com.example.TaskListAPI.notification.NotificationHandler;
+import com.example.TaskListAPI.notification.NotificationListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TaskChangeFeed} for the reactive stack: the same events, heard through the same
+ * {@link NotificationListener} channel and buffered the same way for Last-Event-ID, streamed as a
+ * {@code Flux} of Server-Sent Events.
+ * <p>
+ * Each subscriber gets a bounded queue of {@code LIVE_BUFFER} events. A subscriber that falls that far
+ * behind has its stream completed after what is queued, and resumes from its last event when it
+ * reconnects, instead of holding an ever growing backlog on the server.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskChangeFeed implements NotificationHandler, SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTaskChangeFeed.class);
+    private static final int LIVE_BUFFER = 256;
+    private static final ServerSentEvent<String> CONNECTED = ServerSentEvent.<String>builder()
+        .retry(Duration.ofMillis(2000)).comment("connected").build();
+    private static final ServerSentEvent<String> RESET = ServerSentEvent.<String>builder()
+        .event("reset").data("reload").build();
+    private static final ServerSentEvent<String> HEARTBEAT = ServerSentEvent.<String>builder().comment("").build();
+    
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Duration heartbeatInterval;
+    // Guarded by this, together with subscribing and every emission, so the sinks are only ever
+    // emitted to one thread at a time and no event falls between a replay and the subscription
+    private final ArrayDeque<ServerSentEvent<String>> buffer;
+    private final Set<Sinks.Many<ServerSentEvent<String>>> subscribers = ConcurrentHashMap.newKeySet();
+    
+    private volatile boolean running;
+    
+    public ReactiveTaskChangeFeed(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${task.changes.buffer-size:10000}") int bufferSize,
+                                  @Value("${task.changes.timeout:30m}") Duration timeout,
+                                  @Value("${task.changes.heartbeat:20s}") Duration heartbeatInterval) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.buffer = new ArrayDeque<>(bufferSize);
+        Gauge.builder("task.changes.reactive.subscribers", subscribers, Collection::size)
+            .description("Open Server-Sent Events subscriptions to the task change feed on the reactive stack")
+            .register(meterRegistry);
+    }
+    
+    public Flux<ServerSentEvent<String>> subscribe(String lastEventId) {
+        return Flux.defer(() -> {
+            Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<ServerSentEvent<String>>get(LIVE_BUFFER).get());
+            List<ServerSentEvent<String>> replay;
+            synchronized (this) {
+                replay = lastEventId != null ? replayAfter(lastEventId) : List.of();
+                subscribers.add(sink);
+            }
+            // Keeps idle connections open through proxies, and finds the ones whose client has gone
+            Flux<ServerSentEvent<String>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> HEARTBEAT)
+                .onBackpressureDrop();
+            return Flux.concat(Mono.just(CONNECTED), Flux.fromIterable(replay), sink.asFlux())
+                .mergeWith(heartbeats)
+                .take(timeout)
+                .doFinally(signal -> subscribers.remove(sink));
+        });
+    }
+    
+    // Newest events are at the tail, and a reconnecting client has usually missed only a few
+    private List<ServerSentEvent<String>> replayAfter(String lastEventId) {
+        int missed = 0;
+        Iterator<ServerSentEvent<String>> newestFirst = buffer.descendingIterator();
+        while (newestFirst.hasNext()) {
+            if (lastEventId.equals(newestFirst.next().id())) {
+                return new ArrayList<>(buffer).subList(buffer.size() - missed, buffer.size());
+            }
+            missed++;
+        }
+        return List.of(RESET);
+    }
+    
+    @Override
+    public String channel() {
+        return TaskChangeFeed.CHANNEL;
+    }
+    
+    @Override
+    public void onNotification(String payload) {
+        String id;
+        try {
+            id = objectMapper.readTree(payload).path("id").asText();
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring malformed task change notification: {}", payload, ex);
+            return;
+        }
+        ServerSentEvent<String> event = ServerSentEvent.builder(payload).id(id).event("task").build();
+        synchronized (this) {
+            if (buffer.size() == bufferSize) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(event);
+            subscribers.forEach(sink -> emit(sink, event));
+        }
+    }
+    
+    // Events may have been lost, so no buffered position can be resumed from any more
+    @Override
+    public synchronized void onMissedNotifications() {
+        buffer.clear();
+        subscribers.forEach(sink -> emit(sink, RESET));
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+    }
+    
+    // Runs before the web server's graceful shutdown, which would otherwise wait for every open stream
+    @Override
+    public synchronized void stop() {
+        running = false;
+        subscribers.forEach(Sinks.Many::tryEmitComplete);
+        subscribers.clear();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // A full queue ends the stream once the client has read what is in it; it reconnects from there
+    private void emit(Sinks.Many<ServerSentEvent<String>> sink, ServerSentEvent<String> event) {
+        if (sink.tryEmitNext(event).isFailure()) {
+            sink.tryEmitComplete();
+            subscribers.remove(sink);
+        }
+    }
+}
\ No newline at end of file
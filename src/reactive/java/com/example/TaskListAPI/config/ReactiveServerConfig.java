@@ -0,0 +1,21 @@
+package com.example.TaskListAPI.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serves the reactive stack from Netty. Tomcat is on the classpath for the servlet stack, and Spring Boot
+ * would otherwise pick it for WebFlux too, adapting every request through the Servlet API.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+    
+    // server.port, compression, shutdown and the rest of server.* are applied by Spring Boot's customizers
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
\ No newline at end of file
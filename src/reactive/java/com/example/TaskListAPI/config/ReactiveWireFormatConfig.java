@@ -0,0 +1,71 @@
+package com.example.TaskListAPI.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * {@link WireFormatConfig} for WebFlux: Smile and CBOR codecs with the same binary ObjectMappers. Smile
+ * takes the place of WebFlux's own Smile codec, after JSON; CBOR is a custom codec, behind a second
+ * registration of the JSON encoder.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWireFormatConfig {
+    
+    private static final MimeType SMILE = MimeType.valueOf("application/x-jackson-smile");
+    
+    @Bean
+    public CodecCustomizer binaryCodecs(ObjectMapper objectMapper, ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        // The mime types must be given: with an ObjectMapper alone these codecs claim JSON
+        return configurer -> {
+            ObjectMapper smile = WireFormatConfig.binaryObjectMapper(builder.getObject(), new SmileFactory());
+            ObjectMapper cbor = WireFormatConfig.binaryObjectMapper(builder.getObject(), new CBORFactory());
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, SMILE));
+            // Custom codecs are consulted before the defaults, so JSON is registered again ahead of CBOR
+            // for it to stay the answer to Accept: */*
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new SingleValueCborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        };
+    }
+    
+    // Spring's CBOR encoder only encodes single values, and a response body always reaches it as a stream
+    private static final class SingleValueCborEncoder extends Jackson2CborEncoder {
+        
+        SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+        
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> value) {
+                return value.map(body -> encodeValue(body, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
\ No newline at end of file
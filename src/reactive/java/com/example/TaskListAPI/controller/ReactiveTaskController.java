@@ -0,0 +1,231 @@
+package com.example.TaskListAPI.controller;
+
+import com.example.TaskListAPI.changes.ReactiveTaskChangeFeed;
+import com.example.TaskListAPI.config.TaskFieldsConfig;
+import com.example.TaskListAPI.dto.TaskBatchResponse;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskQuery;
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskStatusBulkRequest;
+import com.example.TaskListAPI.dto.TaskStatusBulkResponse;
+import com.example.TaskListAPI.dto.TaskSyncResponse;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.service.ReactiveTaskService;
+import com.example.TaskListAPI.service.TaskService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * {@link TaskController}'s endpoints on WebFlux, for the reactive profile: same paths, parameters,
+ * status codes, headers and bodies. Pages are streamed by {@link TaskPageWriter} as their rows are
+ * read, and only as fast as the client reads them.
+ * <p>
+ * The OpenAPI description comes from {@link TaskController}; springdoc only documents the servlet stack.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskController {
+    
+    private final ReactiveTaskService taskService;
+    private final ReactiveTaskChangeFeed taskChangeFeed;
+    private final TaskPageWriter pageWriter;
+    
+    public ReactiveTaskController(ReactiveTaskService taskService, ReactiveTaskChangeFeed taskChangeFeed,
+                                  TaskPageWriter pageWriter) {
+        this.taskService = taskService;
+        this.taskChangeFeed = taskChangeFeed;
+        this.pageWriter = pageWriter;
+    }
+    
+    @PostMapping
+    public Mono<ResponseEntity<TaskResponse>> createTask(@Valid @RequestBody TaskRequest taskRequest) {
+        return taskService.createTask(taskRequest)
+            .map(createdTask -> new ResponseEntity<>(createdTask, HttpStatus.CREATED));
+    }
+    
+    @PostMapping("/async")
+    public Mono<ResponseEntity<Void>> submitTask(@Valid @RequestBody TaskRequest taskRequest, ServerWebExchange exchange) {
+        return taskService.submitTask(taskRequest).map(id -> {
+            URI location = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+                .replacePath(exchange.getRequest().getPath().contextPath().value() + "/api/tasks/{id}")
+                .replaceQuery(null)
+                .buildAndExpand(id)
+                .toUri();
+            return ResponseEntity.accepted().location(location).build();
+        });
+    }
+    
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<TaskBatchResponse>> createTasks(@RequestBody List<TaskRequest> taskRequests) {
+        return taskService.createTasks(taskRequests).map(batchResponse -> {
+            HttpStatus status = batchResponse.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return new ResponseEntity<>(batchResponse, status);
+        });
+    }
+    
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        TaskFields selected = TaskFields.parse(fields);
+        return revalidated(exchange, "", selected, () -> taskService.getAllTasks(cursor, limit, selected));
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> exportTasks(ServerWebExchange exchange) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(pageWriter.ndjson(taskService.exportTasks(), exchange.getResponse().bufferFactory()));
+    }
+    
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskChangeFeed.subscribe(lastEventId);
+    }
+    
+    @GetMapping("/sync")
+    public Mono<ResponseEntity<TaskSyncResponse>> syncTasks(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + TaskService.MAX_PAGE_SIZE) int limit) {
+        return taskService.syncTasks(since, limit).map(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<MappingJacksonValue>> getTaskById(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        // A single task comes whole from the cache, so fields only trims the response
+        TaskFields selected = TaskFields.parse(fields);
+        return taskService.getTaskById(id).map(task -> {
+            long lastModified = task.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (exchange.checkNotModified(TaskController.taskETag(task), Instant.ofEpochMilli(lastModified))) {
+                return notModified();
+            }
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT)
+                .body(TaskFieldsConfig.withFields(task, selected));
+        });
+    }
+    
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<TaskResponse>> updateTask(
+            @PathVariable UUID id,
+            @Valid @RequestBody TaskRequest taskRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return taskService.updateTask(id, taskRequest, TaskController.expectedVersion(ifMatch))
+            .map(updatedTask -> ResponseEntity.ok().eTag(TaskController.taskETag(updatedTask)).body(updatedTask));
+    }
+    
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTask(@PathVariable UUID id) {
+        return taskService.deleteTask(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+    
+    @GetMapping("/filter")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getTasksByStatus(
+            @RequestParam Status status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        TaskFields selected = TaskFields.parse(fields);
+        return revalidated(exchange, "", selected, () -> taskService.getTasksByStatus(status, cursor, limit, selected));
+    }
+    
+    @PatchMapping("/{id}/status")
+    public Mono<ResponseEntity<TaskResponse>> updateTaskStatus(
+            @PathVariable UUID id,
+            @RequestParam Status status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return taskService.updateTaskStatus(id, status, TaskController.expectedVersion(ifMatch))
+            .map(updatedTask -> ResponseEntity.ok().eTag(TaskController.taskETag(updatedTask)).body(updatedTask));
+    }
+    
+    @PatchMapping("/status")
+    public Mono<ResponseEntity<TaskStatusBulkResponse>> updateTaskStatuses(@Valid @RequestBody TaskStatusBulkRequest request) {
+        return taskService.updateTaskStatuses(request).map(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchTasks(
+            @RequestParam String keyword,
+            @RequestParam(required = false) Float minRank,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        TaskFields selected = TaskFields.parse(fields);
+        return revalidated(exchange, "", selected,
+            () -> taskService.searchTasks(keyword, minRank, cursor, limit, selected));
+    }
+    
+    @GetMapping("/query")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> queryTasks(
+            @ModelAttribute TaskQuery query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        TaskFields selected = TaskFields.parse(fields);
+        return revalidated(exchange, "", selected, () -> taskService.queryTasks(query, cursor, limit, selected));
+    }
+    
+    @GetMapping("/overdue")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOverdueTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        TaskFields selected = TaskFields.parse(fields);
+        // Which tasks are overdue also changes at midnight, without any write
+        return revalidated(exchange, "-" + LocalDate.now(), selected,
+            () -> taskService.getOverdueTasks(cursor, limit, selected));
+    }
+    
+    // As in TaskController: the collection version is read first, and a matching If-None-Match is
+    // answered with 304 before the page is queried. The format is negotiated before either.
+    private Mono<ResponseEntity<Flux<DataBuffer>>> revalidated(ServerWebExchange exchange, String eTagSuffix,
+                                                               TaskFields fields,
+                                                               Supplier<ReactiveTaskService.PageRows<?>> page) {
+        MediaType mediaType = pageWriter.negotiate(exchange);
+        return taskService.getCollectionVersion().map(version -> {
+            if (exchange.checkNotModified("W/\"v" + version + eTagSuffix + "\"")) {
+                return notModified();
+            }
+            return ResponseEntity.ok().contentType(mediaType).cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(pageWriter.write(page.get(), fields, mediaType, exchange.getResponse().bufferFactory()));
+        });
+    }
+    
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT).build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.example.TaskListAPI.controller;
+
+import com.example.TaskListAPI.config.TaskFieldsConfig;
+import com.example.TaskListAPI.config.WireFormatConfig;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskPageResponse;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.service.ReactiveTaskService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.server.NotAcceptableStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the reactive stack's list pages and export as a stream of buffers of about {@code CHUNK_SIZE}
+ * bytes, encoding rows as they arrive from the database. Rows are only requested as the client takes
+ * the buffers, so a slow reader holds back the query instead of filling memory, and holds no thread
+ * while the server waits for it.
+ * <p>
+ * Pages come in JSON, Smile or CBOR, by {@code Accept}, in the same envelope as {@link TaskPageResponse}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TaskPageWriter {
+    
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    // Large enough for a few dozen tasks per write, small enough that a stalled client costs little
+    static final int CHUNK_SIZE = 8192;
+    
+    // In order of preference when the client accepts several
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+    private final RequestedContentTypeResolver contentTypeResolver;
+    
+    public TaskPageWriter(ObjectMapper objectMapper, ObjectProvider<Jackson2ObjectMapperBuilder> builder,
+                          RequestedContentTypeResolver contentTypeResolver) {
+        this.mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        this.mappers.put(SMILE, WireFormatConfig.binaryObjectMapper(builder.getObject(), new SmileFactory()));
+        this.mappers.put(CBOR, WireFormatConfig.binaryObjectMapper(builder.getObject(), new CBORFactory()));
+        this.contentTypeResolver = contentTypeResolver;
+    }
+    
+    /**
+     * The page format the client prefers. Called before any query, so an unacceptable {@code Accept}
+     * is answered with 406 without touching the database.
+     */
+    public MediaType negotiate(ServerWebExchange exchange) {
+        for (MediaType requested : contentTypeResolver.resolveMediaTypes(exchange)) {
+            for (MediaType supported : mappers.keySet()) {
+                if (requested.isCompatibleWith(supported)) {
+                    return supported;
+                }
+            }
+        }
+        throw new NotAcceptableStatusException(List.copyOf(mappers.keySet()));
+    }
+    
+    public <T> Flux<DataBuffer> write(ReactiveTaskService.PageRows<T> page, TaskFields fields, MediaType mediaType,
+                                      DataBufferFactory bufferFactory) {
+        ObjectMapper mapper = mappers.get(mediaType);
+        ObjectWriter writer = fields.isAll() ? mapper.writer() : mapper.writer(TaskFieldsConfig.filters(fields));
+        return Flux.defer(() -> {
+            PageEncoding<T> encoding;
+            try {
+                encoding = new PageEncoding<>(mapper.getFactory(), writer, page);
+            } catch (IOException ex) {
+                return Flux.error(new UncheckedIOException(ex));
+            }
+            return page.rows().take(page.pageSize() + 1)
+                .<DataBuffer>handle((row, sink) -> {
+                    try {
+                        byte[] chunk = encoding.add(row);
+                        if (chunk != null) {
+                            sink.next(bufferFactory.wrap(chunk));
+                        }
+                    } catch (IOException ex) {
+                        sink.error(new UncheckedIOException(ex));
+                    }
+                })
+                .concatWith(Mono.fromCallable(() -> bufferFactory.wrap(encoding.finish())));
+        });
+    }
+    
+    /**
+     * Newline-delimited JSON, one task per line, gathered into chunks as the tasks arrive. Each task
+     * is only requested from {@code tasks} once the client has read what came before it.
+     */
+    public Flux<DataBuffer> ndjson(Flux<TaskResponse> tasks, DataBufferFactory bufferFactory) {
+        ObjectWriter writer = mappers.get(MediaType.APPLICATION_JSON).writer();
+        return Flux.defer(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(CHUNK_SIZE * 2);
+            return tasks.<DataBuffer>handle((task, sink) -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(task));
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        sink.error(new UncheckedIOException(ex));
+                        return;
+                    }
+                    if (out.size() >= CHUNK_SIZE) {
+                        sink.next(drain(out, bufferFactory));
+                    }
+                })
+                .concatWith(Mono.defer(() -> out.size() > 0 ? Mono.just(drain(out, bufferFactory)) : Mono.empty()));
+        });
+    }
+    
+    private static DataBuffer drain(ByteArrayOutputStream out, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.wrap(out.toByteArray());
+        out.reset();
+        return buffer;
+    }
+    
+    // One page being written: the envelope is opened up front, the cursor is only known at the end
+    private static final class PageEncoding<T> {
+        
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(CHUNK_SIZE * 2);
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+        private final ReactiveTaskService.PageRows<T> page;
+        private int rows;
+        private T last;
+        
+        PageEncoding(JsonFactory factory, ObjectWriter writer, ReactiveTaskService.PageRows<T> page) throws IOException {
+            this.generator = factory.createGenerator(out);
+            this.writer = writer;
+            this.page = page;
+            generator.writeStartObject();
+            generator.writeFieldName("items");
+            generator.writeStartArray();
+        }
+        
+        // The next chunk once enough rows have been written, otherwise null
+        byte[] add(T row) throws IOException {
+            if (++rows > page.pageSize()) {
+                return null;
+            }
+            writer.writeValue(generator, page.task().apply(row));
+            last = row;
+            return out.size() >= CHUNK_SIZE ? drain() : null;
+        }
+        
+        byte[] finish() throws IOException {
+            generator.writeEndArray();
+            boolean hasMore = rows > page.pageSize();
+            generator.writeStringField("nextCursor", hasMore ? page.cursorOf().apply(last).encode() : null);
+            generator.writeNumberField("limit", page.pageSize());
+            generator.writeEndObject();
+            generator.close();
+            return drain();
+        }
+        
+        private byte[] drain() throws IOException {
+            generator.flush();
+            byte[] chunk = out.toByteArray();
+            out.reset();
+            return chunk;
+        }
+    }
+}
\ No newline at end of file
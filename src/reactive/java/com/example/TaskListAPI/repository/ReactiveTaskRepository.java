@@ -0,0 +1,397 @@
+package com.example.TaskListAPI.repository;
+
+import com.example.TaskListAPI.dto.ChangedTask;
+import com.example.TaskListAPI.dto.TaskCursor;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * {@link TaskRepository} for the reactive stack: the same statements over R2DBC, written as SQL
+ * against the {@code tasks} schema that Flyway maintains. Rows are read into {@link TaskResponse}
+ * directly, and only the columns of the requested {@link TaskFields}.
+ * <p>
+ * Writes return the rows they wrote ({@code RETURNING}), so none of them needs a read before or after it.
+ * Transactions are demarcated by the caller.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskRepository {
+    
+    // The WHERE ... ORDER BY ... LIMIT tails of TaskRepository's page queries, in SQL
+    
+    public static final String FIRST_PAGE = "ORDER BY t.created_at, t.id LIMIT :limit";
+    
+    public static final String PAGE_AFTER = "WHERE (t.created_at, t.id) > (:createdAt, :id) "
+        + "ORDER BY t.created_at, t.id LIMIT :limit";
+    
+    public static final String FIRST_PAGE_BY_STATUS = "WHERE t.status = :status "
+        + "ORDER BY t.priority_rank DESC, t.created_at, t.id LIMIT :limit";
+    
+    public static final String PAGE_BY_STATUS_WITHIN_PRIORITY = "WHERE t.status = :status AND t.priority_rank = :priority "
+        + "AND (t.created_at, t.id) > (:createdAt, :id) ORDER BY t.created_at, t.id LIMIT :limit";
+    
+    public static final String PAGE_BY_STATUS_BELOW_PRIORITY = "WHERE t.status = :status AND t.priority_rank < :priority "
+        + "ORDER BY t.priority_rank DESC, t.created_at, t.id LIMIT :limit";
+    
+    // The status list is written as literals so the planner can match the partial index on open tasks
+    public static final String FIRST_OVERDUE_PAGE = "WHERE t.due_date <= :date "
+        + "AND t.status NOT IN ('COMPLETED', 'CANCELLED') ORDER BY t.created_at, t.id LIMIT :limit";
+    
+    public static final String OVERDUE_PAGE_AFTER = "WHERE t.due_date <= :date "
+        + "AND t.status NOT IN ('COMPLETED', 'CANCELLED') "
+        + "AND (t.created_at, t.id) > (:createdAt, :id) ORDER BY t.created_at, t.id LIMIT :limit";
+    
+    private static final Map<String, String> COLUMNS = Map.of(
+        "id", "t.id",
+        "title", "t.title",
+        "description", "t.description",
+        "dueDate", "t.due_date",
+        "status", "t.status",
+        "priority", "t.priority_rank",
+        "createdAt", "t.created_at",
+        "updatedAt", "t.updated_at",
+        "version", "t.version");
+    
+    private static final String ALL_COLUMNS = columns(TaskFields.ALL);
+    
+    private static final String INSERT = "INSERT INTO tasks AS t (id, title, description, due_date, status, priority_rank) ";
+    
+    private final DatabaseClient databaseClient;
+    
+    public ReactiveTaskRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+    
+    public Mono<TaskResponse> findById(UUID id) {
+        return databaseClient.sql("SELECT " + ALL_COLUMNS + " FROM tasks t WHERE t.id = :id")
+            .bind("id", id)
+            .map(row -> toResponse(row, TaskFields.ALL))
+            .one();
+    }
+    
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM tasks t WHERE t.id = :id)")
+            .bind("id", id)
+            .mapValue(Boolean.class)
+            .one();
+    }
+    
+    /**
+     * Runs one of the page tails above, selecting only the given fields.
+     */
+    public Flux<TaskResponse> findResponses(TaskFields fields, String query, Map<String, ?> parameters) {
+        return databaseClient.sql("SELECT " + columns(fields) + " FROM tasks t " + query)
+            .bindValues(parameters)
+            .map(row -> toResponse(row, fields))
+            .all();
+    }
+    
+    /**
+     * Tasks matching a {@link TaskQuerySql} condition, in the given order. {@code parameters} may hold
+     * more than the condition uses, since the segments of one page share them.
+     */
+    public Flux<TaskResponse> findResponses(TaskFields fields, String where, Map<String, ?> parameters, Sort sort,
+                                            int limit) {
+        // The driver rejects a named parameter that the statement does not contain
+        Map<String, Object> params = new HashMap<>();
+        parameters.forEach((name, value) -> {
+            if (Pattern.compile(":" + name + "\\b").matcher(where).find()) {
+                params.put(name, value);
+            }
+        });
+        params.put("limit", limit);
+        return findResponses(fields, "WHERE " + where + " " + TaskQuerySql.orderBy(sort) + " LIMIT :limit", params);
+    }
+    
+    /**
+     * Ranked full-text search in one statement: the page of (id, rank) hits is read off the search
+     * index, as in {@link TaskRepository#searchFirstPage}, and only those rows are joined.
+     */
+    public Flux<RankedTask> search(TaskFields fields, String keyword, float minRank, TaskCursor after, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("keyword", keyword);
+        params.put("minRank", minRank);
+        params.put("limit", limit);
+        String continuation = "";
+        if (after != null) {
+            continuation = "AND (ts_rank(s.search_vector, q), s.id) < (:rank, :id) ";
+            params.put("rank", after.rank());
+            params.put("id", after.id());
+        }
+        return databaseClient.sql("WITH hits AS (SELECT s.id, ts_rank(s.search_vector, q) AS rank "
+                + "FROM tasks s, websearch_to_tsquery('english', :keyword) q "
+                + "WHERE s.search_vector @@ q AND ts_rank(s.search_vector, q) >= :minRank " + continuation
+                + "ORDER BY rank DESC, s.id DESC LIMIT :limit) "
+                + "SELECT " + columns(fields) + ", h.rank FROM hits h JOIN tasks t ON t.id = h.id "
+                + "ORDER BY h.rank DESC, h.id DESC")
+            .bindValues(params)
+            .map(row -> new RankedTask(toResponse(row, fields), row.get("rank", Float.class)))
+            .all();
+    }
+    
+    public Mono<TaskResponse> insert(UUID id, TaskRequest request) {
+        return databaseClient.sql(INSERT + "VALUES (:id, :title, :description, :dueDate, :status, :priority) "
+                + "RETURNING " + ALL_COLUMNS)
+            .bindValues(values(id, request))
+            .map(row -> toResponse(row, TaskFields.ALL))
+            .one();
+    }
+    
+    /**
+     * Inserts the tasks with one statement, whatever their number, by passing each column as an array.
+     */
+    public Flux<TaskResponse> insertAll(List<UUID> ids, List<TaskRequest> requests) {
+        return databaseClient.sql(INSERT + "SELECT * FROM unnest(CAST(:ids AS uuid[]), CAST(:titles AS varchar[]), "
+                + "CAST(:descriptions AS varchar[]), CAST(:dueDates AS date[]), CAST(:statuses AS varchar[]), "
+                + "CAST(:priorities AS smallint[])) RETURNING " + ALL_COLUMNS)
+            .bind("ids", ids.toArray(UUID[]::new))
+            .bind("titles", requests.stream().map(TaskRequest::getTitle).toArray(String[]::new))
+            .bind("descriptions", requests.stream().map(TaskRequest::getDescription).toArray(String[]::new))
+            .bind("dueDates", requests.stream().map(TaskRequest::getDueDate).toArray(LocalDate[]::new))
+            .bind("statuses", requests.stream().map(request -> request.getStatus().name()).toArray(String[]::new))
+            .bind("priorities", requests.stream().map(request -> (short) request.getPriority().getRank()).toArray(Short[]::new))
+            .map(row -> toResponse(row, TaskFields.ALL))
+            .all();
+    }
+    
+    // Optimistic concurrency as in TaskRepository#updateIfVersionMatches: empty when nothing was written.
+    // updated_at is stamped by the BEFORE UPDATE trigger (V1).
+    
+    public Mono<TaskResponse> update(UUID id, Long version, TaskRequest request) {
+        return databaseClient.sql("UPDATE tasks t SET title = :title, description = :description, due_date = :dueDate, "
+                + "status = :status, priority_rank = :priority, version = t.version + 1 "
+                + "WHERE t.id = :id" + versionCheck(version) + " RETURNING " + ALL_COLUMNS)
+            .bindValues(withVersion(values(id, request), version))
+            .map(row -> toResponse(row, TaskFields.ALL))
+            .one();
+    }
+    
+    public Mono<TaskResponse> updateStatus(UUID id, Long version, Status status) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", id);
+        params.put("status", status.name());
+        return databaseClient.sql("UPDATE tasks t SET status = :status, version = t.version + 1 "
+                + "WHERE t.id = :id" + versionCheck(version) + " RETURNING " + ALL_COLUMNS)
+            .bindValues(withVersion(params, version))
+            .map(row -> toResponse(row, TaskFields.ALL))
+            .one();
+    }
+    
+    // The number of rows deleted; their tombstones are written by the AFTER DELETE trigger (V8)
+    public Mono<Long> deleteById(UUID id) {
+        return databaseClient.sql("DELETE FROM tasks t WHERE t.id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated();
+    }
+    
+    // Set-based status changes as in TaskRepository, returning the (id, version) of every row written
+    
+    public Flux<TaskVersion> updateStatusByIdIn(Collection<UUID> ids, Status status) {
+        return databaseClient.sql("UPDATE tasks t SET status = :status, version = t.version + 1 "
+                + "WHERE t.id IN (:ids) AND t.status <> :status RETURNING t.id, t.version")
+            .bind("ids", ids)
+            .bind("status", status.name())
+            .map(ReactiveTaskRepository::toVersion)
+            .all();
+    }
+    
+    public Flux<TaskVersion> updateStatusMatching(Status current, boolean overdue, LocalDate today, Status status) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("status", status.name());
+        StringBuilder where = new StringBuilder("WHERE t.status <> :status");
+        if (current != null) {
+            where.append(" AND t.status = :current");
+            params.put("current", current.name());
+        }
+        if (overdue) {
+            where.append(" AND t.due_date <= :today AND t.status NOT IN ('COMPLETED', 'CANCELLED')");
+            params.put("today", today);
+        }
+        return databaseClient.sql("UPDATE tasks t SET status = :status, version = t.version + 1 " + where
+                + " RETURNING t.id, t.version")
+            .bindValues(params)
+            .map(ReactiveTaskRepository::toVersion)
+            .all();
+    }
+    
+    // Derived from the tasks rather than kept in a row every writer would lock (V11)
+    public Mono<Long> findCollectionVersion() {
+        return databaseClient.sql("SELECT CAST(COALESCE(SUM(t.change_xid + 1), 0) % 9223372036854775807 AS BIGINT) FROM tasks t")
+            .mapValue(Long.class)
+            .one();
+    }
+    
+    /**
+     * Sends every notification in one round trip. Postgres delivers them once the current transaction
+     * commits, and in this order.
+     */
+    public Mono<Void> notify(List<String> channels, List<String> payloads) {
+        return databaseClient.sql("SELECT pg_notify(n.channel, n.payload) "
+                + "FROM unnest(CAST(:channels AS text[]), CAST(:payloads AS text[])) AS n(channel, payload)")
+            .bind("channels", channels.toArray(String[]::new))
+            .bind("payloads", payloads.toArray(String[]::new))
+            .then();
+    }
+    
+    // Delta sync, as in TaskRepository#findSyncWatermark and the queries it bounds
+    
+    public Mono<SyncWatermark> findSyncWatermark() {
+        return databaseClient.sql("SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS BIGINT) AS xid, "
+                + "CAST(CURRENT_TIMESTAMP AS TIMESTAMP) AS taken_at")
+            .map(row -> new SyncWatermark(row.get("xid", Long.class), row.get("taken_at", LocalDateTime.class)))
+            .one();
+    }
+    
+    public Flux<ChangedTask> findChangedBefore(long until, int limit) {
+        return findChanged("WHERE t.change_xid < :until ORDER BY t.change_xid, t.id LIMIT :limit",
+            Map.of("until", until, "limit", limit));
+    }
+    
+    public Flux<ChangedTask> findChangedBetween(long changeXid, UUID id, long until, int limit) {
+        return findChanged("WHERE (t.change_xid, t.id) > (:changeXid, :id) AND t.change_xid < :until "
+                + "ORDER BY t.change_xid, t.id LIMIT :limit",
+            Map.of("changeXid", changeXid, "id", id, "until", until, "limit", limit));
+    }
+    
+    public Flux<Tombstone> findTombstonesBetween(long changeXid, UUID id, long until, int limit) {
+        return databaseClient.sql("SELECT d.id, d.change_xid FROM task_tombstones d "
+                + "WHERE (d.change_xid, d.id) > (:changeXid, :id) AND d.change_xid < :until "
+                + "ORDER BY d.change_xid, d.id LIMIT :limit")
+            .bindValues(Map.of("changeXid", changeXid, "id", id, "until", until, "limit", limit))
+            .map(row -> new Tombstone(row.get("id", UUID.class), row.get("change_xid", Long.class)))
+            .all();
+    }
+    
+    private Flux<ChangedTask> findChanged(String query, Map<String, ?> parameters) {
+        return databaseClient.sql("SELECT t.change_xid, " + ALL_COLUMNS + " FROM tasks t " + query)
+            .bindValues(parameters)
+            .map(row -> new ChangedTask(row.get("change_xid", Long.class), toResponse(row, TaskFields.ALL)))
+            .all();
+    }
+    
+    /**
+     * Every task, in no particular order. Rows are fetched from a portal {@code 1000} at a time, and the
+     * next batch only once the subscriber has asked for more, so a slow consumer holds back the read.
+     */
+    public Flux<TaskResponse> streamAll() {
+        return databaseClient.sql("SELECT " + ALL_COLUMNS + " FROM tasks t")
+            .filter(statement -> statement.fetchSize(1000))
+            .map(row -> toResponse(row, TaskFields.ALL))
+            .all();
+    }
+    
+    private static String columns(TaskFields fields) {
+        StringJoiner columns = new StringJoiner(", ");
+        TaskFields.NAMES.stream().filter(fields::contains).forEach(field -> columns.add(COLUMNS.get(field)));
+        return columns.toString();
+    }
+    
+    // Nullable columns are bound as typed nulls, which Postgres needs to plan the statement
+    private static Map<String, Object> values(UUID id, TaskRequest request) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", id);
+        params.put("title", request.getTitle());
+        params.put("description", request.getDescription() != null
+            ? request.getDescription() : Parameters.in(String.class));
+        params.put("dueDate", request.getDueDate() != null ? request.getDueDate() : Parameters.in(LocalDate.class));
+        params.put("status", request.getStatus().name());
+        params.put("priority", (short) request.getPriority().getRank());
+        return params;
+    }
+    
+    // No expected version means an unconditional write
+    private static String versionCheck(Long version) {
+        return version == null ? "" : " AND t.version = :version";
+    }
+    
+    private static Map<String, Object> withVersion(Map<String, Object> params, Long version) {
+        if (version != null) {
+            params.put("version", version);
+        }
+        return params;
+    }
+    
+    private static TaskResponse toResponse(Readable row, TaskFields fields) {
+        TaskResponse task = new TaskResponse();
+        for (String field : TaskFields.NAMES) {
+            if (fields.contains(field)) {
+                read(row, field, task);
+            }
+        }
+        return task;
+    }
+    
+    private static void read(Readable row, String field, TaskResponse task) {
+        switch (field) {
+            case "id" -> task.setId(row.get("id", UUID.class));
+            case "title" -> task.setTitle(row.get("title", String.class));
+            case "description" -> task.setDescription(row.get("description", String.class));
+            case "dueDate" -> task.setDueDate(row.get("due_date", LocalDate.class));
+            case "status" -> task.setStatus(Status.valueOf(row.get("status", String.class)));
+            case "priority" -> task.setPriority(Task.Priority.fromRank(row.get("priority_rank", Short.class)));
+            case "createdAt" -> task.setCreatedAt(row.get("created_at", LocalDateTime.class));
+            case "updatedAt" -> task.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+            case "version" -> task.setVersion(row.get("version", Long.class));
+            default -> throw new IllegalArgumentException("Not a task field: " + field);
+        }
+    }
+    
+    private static TaskVersion toVersion(Readable row) {
+        return new TaskVersion(row.get("id", UUID.class), row.get("version", Long.class));
+    }
+    
+    public record RankedTask(TaskResponse task, float rank) {
+    }
+    
+    public record TaskVersion(UUID id, long version) {
+    }
+    
+    public record SyncWatermark(long xid, LocalDateTime takenAt) implements TaskRepository.SyncWatermark {
+        
+        @Override
+        public long getXid() {
+            return xid;
+        }
+        
+        @Override
+        public LocalDateTime getTakenAt() {
+            return takenAt;
+        }
+    }
+    
+    public record Tombstone(UUID id, long changeXid) implements TaskRepository.Tombstone {
+        
+        @Override
+        public UUID getId() {
+            return id;
+        }
+        
+        @Override
+        public long getChangeXid() {
+            return changeXid;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,397 @@
+package com.example.TaskListAPI.service;
+
+import com.example.TaskListAPI.cache.TaskCache;
+import com.example.TaskListAPI.changes.TaskChangeFeed;
+import com.example.TaskListAPI.dto.ChangedTask;
+import com.example.TaskListAPI.dto.SyncToken;
+import com.example.TaskListAPI.dto.TaskBatchItemResult;
+import com.example.TaskListAPI.dto.TaskBatchResponse;
+import com.example.TaskListAPI.dto.TaskChangeEvent;
+import com.example.TaskListAPI.dto.TaskCursor;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskQuery;
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskStatusBulkRequest;
+import com.example.TaskListAPI.dto.TaskStatusBulkResponse;
+import com.example.TaskListAPI.dto.TaskStatusChange;
+import com.example.TaskListAPI.dto.TaskStatusFilter;
+import com.example.TaskListAPI.dto.TaskSyncResponse;
+import com.example.TaskListAPI.entity.UuidV7Generator;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.exception.BatchTooLargeException;
+import com.example.TaskListAPI.exception.TaskNotFoundException;
+import com.example.TaskListAPI.exception.TaskVersionConflictException;
+import com.example.TaskListAPI.ingest.TaskIngestionQueue;
+import com.example.TaskListAPI.repository.ReactiveTaskRepository;
+import com.example.TaskListAPI.repository.TaskQuerySql;
+import com.example.TaskListAPI.sync.TaskSyncService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * {@link TaskService} for the reactive stack, over {@link ReactiveTaskRepository}. Nothing here blocks:
+ * a request waiting for a connection or a row holds no thread.
+ * <p>
+ * Writes run in an R2DBC transaction and send their cache invalidations and change events with
+ * {@code pg_notify} in it, so {@link TaskCache} and {@link TaskChangeFeed} on every instance hear about
+ * them exactly as they do about writes from the servlet stack. List reads hand back the rows of a page
+ * as they are read, for the controller to write as the client takes them.
+ * <p>
+ * Not carried over: identical concurrent page reads are not coalesced, and single-task misses are
+ * loaded once per caller rather than once per task.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskService {
+    
+    private final ReactiveTaskRepository taskRepository;
+    private final Validator validator;
+    private final TaskCache taskCache;
+    private final TaskIngestionQueue taskIngestionQueue;
+    private final ObjectMapper objectMapper;
+    private final Duration tombstoneRetention;
+    private final TransactionalOperator transactions;
+    private final TransactionalOperator readOnlyTransactions;
+    
+    public ReactiveTaskService(ReactiveTaskRepository taskRepository, ConnectionFactory connectionFactory,
+                               Validator validator, TaskCache taskCache, TaskIngestionQueue taskIngestionQueue,
+                               ObjectMapper objectMapper,
+                               @Value("${task.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.taskRepository = taskRepository;
+        this.validator = validator;
+        this.taskCache = taskCache;
+        this.taskIngestionQueue = taskIngestionQueue;
+        this.objectMapper = objectMapper;
+        this.tombstoneRetention = tombstoneRetention;
+        // Not a bean: see spring.autoconfigure.exclude in application.properties
+        R2dbcTransactionManager transactionManager = new R2dbcTransactionManager(connectionFactory);
+        this.transactions = TransactionalOperator.create(transactionManager);
+        DefaultTransactionDefinition readOnly = new DefaultTransactionDefinition();
+        readOnly.setReadOnly(true);
+        this.readOnlyTransactions = TransactionalOperator.create(transactionManager, readOnly);
+    }
+    
+    public Mono<TaskResponse> createTask(TaskRequest taskRequest) {
+        return Mono.defer(() -> taskRepository.insert(UuidV7Generator.next(), taskRequest))
+            .flatMap(task -> notify(List.of(), List.of(TaskChangeEvent.created(task.getId()))).thenReturn(task))
+            .as(transactions::transactional);
+    }
+    
+    // The ingestion queue never blocks a submitter: a full queue is rejected at once
+    public Mono<UUID> submitTask(TaskRequest taskRequest) {
+        return Mono.fromCallable(() -> {
+            UUID id = UuidV7Generator.next();
+            taskIngestionQueue.submit(id, taskRequest);
+            return id;
+        });
+    }
+    
+    /**
+     * Validates every request on its own and inserts the valid ones, one statement per chunk, all in one
+     * transaction as {@link TaskService#createTasks} does.
+     */
+    public Mono<TaskBatchResponse> createTasks(List<TaskRequest> taskRequests) {
+        if (taskRequests.size() > TaskService.MAX_BATCH_SIZE) {
+            return Mono.error(new BatchTooLargeException("Batch must not exceed " + TaskService.MAX_BATCH_SIZE + " tasks"));
+        }
+        TaskBatchItemResult[] results = new TaskBatchItemResult[taskRequests.size()];
+        List<Map<UUID, Integer>> chunks = new ArrayList<>();
+        Map<UUID, TaskRequest> valid = new HashMap<>();
+        int failed = 0;
+        for (int i = 0; i < taskRequests.size(); i++) {
+            TaskRequest taskRequest = taskRequests.get(i);
+            Map<String, String> errors = TaskService.validate(validator, taskRequest);
+            if (!errors.isEmpty()) {
+                results[i] = TaskBatchItemResult.invalid(i, errors);
+                failed++;
+                continue;
+            }
+            if (chunks.isEmpty() || chunks.get(chunks.size() - 1).size() == TaskService.INSERT_CHUNK_SIZE) {
+                chunks.add(new LinkedHashMap<>());
+            }
+            UUID id = UuidV7Generator.next();
+            chunks.get(chunks.size() - 1).put(id, i);
+            valid.put(id, taskRequest);
+        }
+        int created = taskRequests.size() - failed;
+        return Flux.fromIterable(chunks)
+            .concatMap(chunk -> {
+                List<UUID> ids = List.copyOf(chunk.keySet());
+                return taskRepository.insertAll(ids, ids.stream().map(valid::get).toList())
+                    .doOnNext(task -> {
+                        int index = chunk.get(task.getId());
+                        results[index] = TaskBatchItemResult.created(index, task);
+                    })
+                    .then(notify(List.of(), ids.stream().map(TaskChangeEvent::created).toList()));
+            })
+            .then(Mono.fromCallable(() -> new TaskBatchResponse(created, results.length - created, List.of(results))))
+            .as(transactions::transactional);
+    }
+    
+    public Mono<Long> getCollectionVersion() {
+        return taskRepository.findCollectionVersion();
+    }
+    
+    // Loaded from the primary, like every R2DBC read, so a miss cannot put back what a replica still has
+    public Mono<TaskResponse> getTaskById(UUID id) {
+        return Mono.defer(() -> {
+            TaskResponse cached = taskCache.getIfPresent(id);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long evictionsBeforeLoad = taskCache.evictionCount();
+            return taskRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException("Task not found with id: " + id)))
+                .doOnNext(task -> taskCache.putLoaded(id, task, evictionsBeforeLoad));
+        });
+    }
+    
+    public PageRows<TaskResponse> getAllTasks(String cursor, int limit, TaskFields fields) {
+        int pageSize = TaskService.pageSize(limit);
+        TaskFields selected = fields.with("createdAt");
+        if (cursor == null) {
+            return PageRows.of(taskRepository.findResponses(selected, ReactiveTaskRepository.FIRST_PAGE,
+                Map.of("limit", pageSize + 1)), pageSize, TaskCursor::of);
+        }
+        TaskCursor after = TaskService.decodeCursor(cursor, TaskCursor::hasCreationKey);
+        return PageRows.of(taskRepository.findResponses(selected, ReactiveTaskRepository.PAGE_AFTER,
+            Map.of("createdAt", after.createdAt(), "id", after.id(), "limit", pageSize + 1)), pageSize, TaskCursor::of);
+    }
+    
+    /**
+     * Every task, read through a portal in a read-only transaction and only as fast as the subscriber
+     * consumes it.
+     */
+    public Flux<TaskResponse> exportTasks() {
+        return taskRepository.streamAll().as(readOnlyTransactions::transactional);
+    }
+    
+    public PageRows<TaskResponse> getTasksByStatus(Status status, String cursor, int limit, TaskFields fields) {
+        int pageSize = TaskService.pageSize(limit);
+        TaskFields selected = fields.with("createdAt", "priority");
+        if (cursor == null) {
+            return PageRows.of(taskRepository.findResponses(selected, ReactiveTaskRepository.FIRST_PAGE_BY_STATUS,
+                Map.of("status", status.name(), "limit", pageSize + 1)), pageSize, TaskCursor::withPriority);
+        }
+        TaskCursor after = TaskService.decodeCursor(cursor, TaskCursor::hasPriorityKey);
+        short priority = (short) after.priority().getRank();
+        List<IntFunction<Flux<TaskResponse>>> segments = List.of(
+            remaining -> taskRepository.findResponses(selected, ReactiveTaskRepository.PAGE_BY_STATUS_WITHIN_PRIORITY,
+                Map.of("status", status.name(), "priority", priority, "createdAt", after.createdAt(), "id", after.id(),
+                    "limit", remaining)),
+            remaining -> taskRepository.findResponses(selected, ReactiveTaskRepository.PAGE_BY_STATUS_BELOW_PRIORITY,
+                Map.of("status", status.name(), "priority", priority, "limit", remaining)));
+        return PageRows.of(concat(segments, pageSize + 1), pageSize, TaskCursor::withPriority);
+    }
+    
+    public Mono<TaskResponse> updateTask(UUID id, TaskRequest taskRequest, Long expectedVersion) {
+        return taskRepository.update(id, expectedVersion, taskRequest)
+            .switchIfEmpty(Mono.defer(() -> writeRejected(id, expectedVersion)))
+            .flatMap(task -> notify(List.of(id.toString()), List.of(TaskChangeEvent.updated(id, task.getVersion())))
+                .thenReturn(task))
+            .as(transactions::transactional)
+            .doOnSuccess(task -> taskCache.evict(id));
+    }
+    
+    public Mono<Void> deleteTask(UUID id) {
+        return taskRepository.deleteById(id)
+            .flatMap(deleted -> deleted == 0
+                ? Mono.<Void>error(new TaskNotFoundException("Task not found with id: " + id))
+                : notify(List.of(id.toString()), List.of(TaskChangeEvent.deleted(id))))
+            .as(transactions::transactional)
+            .doOnSuccess(done -> taskCache.evict(id));
+    }
+    
+    // See TaskService#searchTasks; here the hits and their rows come from one statement
+    public PageRows<ReactiveTaskRepository.RankedTask> searchTasks(String keyword, Float minRank, String cursor, int limit,
+                                                                   TaskFields fields) {
+        int pageSize = TaskService.pageSize(limit);
+        float rankCutoff = minRank != null ? minRank : 0f;
+        TaskCursor after = cursor == null ? null : TaskService.decodeCursor(cursor, TaskCursor::hasRankKey);
+        return new PageRows<>(taskRepository.search(fields, keyword, rankCutoff, after, pageSize + 1), pageSize,
+            ReactiveTaskRepository.RankedTask::task, hit -> TaskCursor.ranked(hit.rank(), hit.task().getId()));
+    }
+    
+    public PageRows<TaskResponse> getOverdueTasks(String cursor, int limit, TaskFields fields) {
+        int pageSize = TaskService.pageSize(limit);
+        TaskFields selected = fields.with("createdAt");
+        LocalDate today = LocalDate.now();
+        if (cursor == null) {
+            return PageRows.of(taskRepository.findResponses(selected, ReactiveTaskRepository.FIRST_OVERDUE_PAGE,
+                Map.of("date", today, "limit", pageSize + 1)), pageSize, TaskCursor::of);
+        }
+        TaskCursor after = TaskService.decodeCursor(cursor, TaskCursor::hasCreationKey);
+        return PageRows.of(taskRepository.findResponses(selected, ReactiveTaskRepository.OVERDUE_PAGE_AFTER,
+                Map.of("date", today, "createdAt", after.createdAt(), "id", after.id(), "limit", pageSize + 1)),
+            pageSize, TaskCursor::of);
+    }
+    
+    // See TaskService#queryTasks
+    public PageRows<TaskResponse> queryTasks(TaskQuery query, String cursor, int limit, TaskFields fields) {
+        query.validate();
+        int pageSize = TaskService.pageSize(limit);
+        Sort sort = query.toSort();
+        Map<String, Object> params = new HashMap<>();
+        String where = TaskQuerySql.matching(query, params);
+        List<String> segments = cursor == null
+            ? List.of(where)
+            : TaskQuerySql.after(sort, TaskService.decodeCursor(cursor, TaskCursor::hasSortableKeys), params).stream()
+                .map(segment -> where + " AND " + segment)
+                .toList();
+        TaskFields selected = fields.with(TaskQuery.SORTABLE.toArray(String[]::new));
+        List<IntFunction<Flux<TaskResponse>>> reads = segments.stream()
+            .<IntFunction<Flux<TaskResponse>>>map(segment ->
+                remaining -> taskRepository.findResponses(selected, segment, params, sort, remaining))
+            .toList();
+        return PageRows.of(concat(reads, pageSize + 1), pageSize, TaskCursor::sortable);
+    }
+    
+    public Mono<TaskResponse> updateTaskStatus(UUID id, Status status, Long expectedVersion) {
+        return taskRepository.updateStatus(id, expectedVersion, status)
+            .switchIfEmpty(Mono.defer(() -> writeRejected(id, expectedVersion)))
+            .flatMap(task -> notify(List.of(id.toString()), List.of(TaskChangeEvent.updated(id, task.getVersion())))
+                .thenReturn(task))
+            .as(transactions::transactional)
+            .doOnSuccess(task -> taskCache.evict(id));
+    }
+    
+    // See TaskService#updateTaskStatuses
+    public Mono<TaskStatusBulkResponse> updateTaskStatuses(TaskStatusBulkRequest request) {
+        Flux<ReactiveTaskRepository.TaskVersion> updated;
+        if (request.getChanges() != null) {
+            if (request.getChanges().size() > TaskService.MAX_BATCH_SIZE) {
+                return Mono.error(new BatchTooLargeException("Batch must not exceed " + TaskService.MAX_BATCH_SIZE
+                    + " status changes"));
+            }
+            Map<Status, List<UUID>> idsByStatus = new EnumMap<>(Status.class);
+            for (TaskStatusChange change : request.getChanges()) {
+                idsByStatus.computeIfAbsent(change.getStatus(), status -> new ArrayList<>()).add(change.getId());
+            }
+            updated = Flux.fromIterable(idsByStatus.entrySet())
+                .concatMap(group -> taskRepository.updateStatusByIdIn(group.getValue(), group.getKey()));
+        } else {
+            TaskStatusFilter filter = request.getFilter();
+            updated = taskRepository.updateStatusMatching(filter.getStatus(), filter.isOverdue(), LocalDate.now(),
+                request.getStatus());
+        }
+        return updated.collectList()
+            .flatMap(tasks -> {
+                if (tasks.isEmpty()) {
+                    return Mono.just(tasks);
+                }
+                return notify(List.of(TaskCache.ALL), tasks.stream()
+                    .map(task -> TaskChangeEvent.updated(task.id(), task.version()))
+                    .toList())
+                    .thenReturn(tasks);
+            })
+            .as(transactions::transactional)
+            .doOnSuccess(tasks -> {
+                if (!tasks.isEmpty()) {
+                    taskCache.evictAll();
+                }
+            })
+            .map(tasks -> new TaskStatusBulkResponse(tasks.size()));
+    }
+    
+    /**
+     * {@link TaskSyncService#syncTasks} over R2DBC, in a transaction on the primary like the original.
+     */
+    public Mono<TaskSyncResponse> syncTasks(String since, int limit) {
+        int pageSize = TaskSyncService.pageSize(limit);
+        return taskRepository.findSyncWatermark()
+            .flatMap(watermark -> {
+                SyncToken after = TaskSyncService.resolve(since, watermark, tombstoneRetention);
+                Mono<List<ChangedTask>> tasks = (after.changeXid() == null
+                    ? taskRepository.findChangedBefore(watermark.getXid(), pageSize + 1)
+                    : taskRepository.findChangedBetween(after.changeXid(), after.id(), watermark.getXid(), pageSize + 1))
+                    .collectList();
+                Mono<List<ReactiveTaskRepository.Tombstone>> tombstones = TaskSyncService.hasTombstones(after, watermark)
+                    ? taskRepository.findTombstonesBetween(after.tombstoneFloor(), TaskSyncService.tombstonesAfter(after),
+                        watermark.getXid(), pageSize + 1).collectList()
+                    : Mono.just(Collections.emptyList());
+                return tasks.zipWith(tombstones, (changed, deleted) ->
+                    TaskSyncService.toResponse(after, watermark, changed, deleted, pageSize));
+            })
+            .as(transactions::transactional);
+    }
+    
+    // Nothing written means the task is gone or its version moved on; only this failure path
+    // pays for the extra lookup that tells the two apart.
+    private <T> Mono<T> writeRejected(UUID id, Long expectedVersion) {
+        return taskRepository.existsById(id).flatMap(exists -> Mono.error(exists
+            ? new TaskVersionConflictException("Task " + id + " has changed since version " + expectedVersion)
+            : new TaskNotFoundException("Task not found with id: " + id)));
+    }
+    
+    // Cache invalidations first, then change events, in one round trip inside the writing transaction
+    private Mono<Void> notify(List<String> invalidations, List<TaskChangeEvent> events) {
+        List<String> channels = new ArrayList<>();
+        List<String> payloads = new ArrayList<>(invalidations);
+        invalidations.forEach(invalidation -> channels.add(TaskCache.CHANNEL));
+        for (TaskChangeEvent event : events) {
+            channels.add(TaskChangeFeed.CHANNEL);
+            payloads.add(toJson(event));
+        }
+        return taskRepository.notify(channels, payloads);
+    }
+    
+    private String toJson(TaskChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    // Reads the segments one after the other, each only once the ones before it have run out, and
+    // each limited to what is still missing
+    private static Flux<TaskResponse> concat(List<IntFunction<Flux<TaskResponse>>> segments, int limit) {
+        return Flux.defer(() -> {
+            AtomicInteger read = new AtomicInteger();
+            return Flux.fromIterable(segments).concatMap(segment -> {
+                int remaining = limit - read.get();
+                return remaining > 0 ? segment.apply(remaining).doOnNext(task -> read.incrementAndGet()) : Flux.empty();
+            });
+        });
+    }
+    
+    /**
+     * A page as its rows are read: at most {@code pageSize + 1} of them, the extra one only telling
+     * that there is a next page, whose cursor is then taken from the last row returned.
+     */
+    public record PageRows<T>(Flux<T> rows, int pageSize, Function<T, TaskResponse> task,
+                              Function<T, TaskCursor> cursorOf) {
+        
+        static PageRows<TaskResponse> of(Flux<TaskResponse> rows, int pageSize,
+                                         Function<TaskResponse, TaskCursor> cursorOf) {
+            return new PageRows<>(rows, pageSize, Function.identity(), cursorOf);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.example.TaskListAPI.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final AtomicBoolean poolSaturated = new AtomicBoolean();
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimit limit;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limit = new AdaptiveConcurrencyLimit("read", 10, 2, 20, Duration.ofMillis(100), poolSaturated::get, meterRegistry);
+        // Later than the limit's creation, which counts as its last decrease
+        now = System.nanoTime() + MILLIS;
+    }
+
+    @Test
+    void tryAcquire_ShouldRefuse_OnceLimitIsInFlight() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+
+        // When & Then
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(10);
+        assertThat(meterRegistry.get("task.admission.rejected").tag("kind", "read").counter().count()).isEqualTo(1);
+
+        limit.release(now, now + MILLIS);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void release_ShouldGrowLimitByAboutOnePerRoundTrip_WhenFastAndBusy() {
+        // When
+        for (int round = 0; round < 5; round++) {
+            int admitted = (int) limit.getLimit();
+            for (int i = 0; i < admitted; i++) {
+                limit.tryAcquire();
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.release(now, now + MILLIS);
+            }
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isBetween(12.0, 15.0);
+        assertThat(meterRegistry.get("task.admission.limit").tag("kind", "read").gauge().value()).isEqualTo(limit.getLimit());
+    }
+
+    @Test
+    void release_ShouldNotGrowLimit_WhenMostlyIdle() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(now, now + MILLIS);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(10.0);
+    }
+
+    @Test
+    void release_ShouldBackOffOncePerRoundTrip_WhenRequestsAreSlow() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+        }
+
+        // When: all ten were admitted before the first slow one finished
+        for (int i = 0; i < 10; i++) {
+            limit.release(now, now + 500 * MILLIS);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(9.0);
+        assertThat(meterRegistry.get("task.admission.decreases").tag("kind", "read").counter().count()).isEqualTo(1);
+
+        // And a request admitted after that backs off again
+        limit.tryAcquire();
+        limit.release(now + 600 * MILLIS, now + 800 * MILLIS);
+        assertThat(limit.getLimit()).isCloseTo(8.1, within(1e-9));
+    }
+
+    @Test
+    void release_ShouldBackOffToMinimum_WhenPoolStaysSaturated() {
+        // Given
+        poolSaturated.set(true);
+
+        // When
+        for (int round = 1; round <= 50; round++) {
+            limit.tryAcquire();
+            limit.release(now + round * 10 * MILLIS, now + round * 10 * MILLIS + MILLIS);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(2.0);
+        assertThat(limit.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.TaskListAPI.cache;
+
+import com.example.TaskListAPI.dto.TaskResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TaskCacheTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskCache taskCache;
+    private UUID taskId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskCache = new TaskCache(jdbcTemplate, meterRegistry, 100, Duration.ofMinutes(1));
+        taskId = UUID.randomUUID();
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeRepeatsFromCache() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        TaskResponse first = taskCache.get(taskId, id -> {
+            loads.incrementAndGet();
+            return new TaskResponse();
+        });
+        TaskResponse second = taskCache.get(taskId, id -> {
+            loads.incrementAndGet();
+            return new TaskResponse();
+        });
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tasks").tag("result", "hit").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tasks").tag("result", "miss").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_ShouldNotifyOtherInstancesAndEvict() {
+        // Given
+        TaskResponse cached = taskCache.get(taskId, id -> new TaskResponse());
+
+        // When
+        taskCache.invalidate(taskId);
+
+        // Then
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+            eq(TaskCache.CHANNEL), eq(taskId.toString()));
+        assertThat(taskCache.get(taskId, id -> new TaskResponse())).isNotSameAs(cached);
+    }
+
+    @Test
+    void get_ShouldNotCacheValue_WhenEvictedWhileLoading() {
+        // Given - a write commits while this read is still loading the old row
+        TaskResponse stale = taskCache.get(taskId, id -> {
+            taskCache.evictNotified(id.toString());
+            return new TaskResponse();
+        });
+
+        // When
+        TaskResponse reloaded = taskCache.get(taskId, id -> new TaskResponse());
+
+        // Then
+        assertThat(reloaded).isNotSameAs(stale);
+        assertThat(meterRegistry.get("task.cache.notifications").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @Timeout(5)
+    void get_ShouldLoadAgain_WhenEvictedWhileAnotherCallerIsLoading() {
+        // Given - a write commits while the first caller is still loading the old row
+        TaskResponse fresh = new TaskResponse();
+        TaskResponse[] later = new TaskResponse[1];
+        taskCache.get(taskId, id -> {
+            taskCache.evictNotified(id.toString());
+
+            // When - a caller arriving after the write must not share that load
+            later[0] = taskCache.get(taskId, again -> fresh);
+            return new TaskResponse();
+        });
+
+        // Then
+        assertThat(later[0]).isSameAs(fresh);
+        assertThat(meterRegistry.get("task.coalescing.calls").tag("read", "task").tag("role", "leader").counter().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void evictNotified_ShouldEvictEveryTask_WhenPayloadIsWildcard() {
+        // Given
+        TaskResponse cached = taskCache.get(taskId, id -> new TaskResponse());
+
+        // When
+        taskCache.evictNotified(TaskCache.ALL);
+
+        // Then
+        assertThat(taskCache.get(taskId, id -> new TaskResponse())).isNotSameAs(cached);
+    }
+}
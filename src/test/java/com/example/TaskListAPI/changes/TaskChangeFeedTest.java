@@ -0,0 +1,264 @@
+package com.example.TaskListAPI.changes;
+
+import com.example.TaskListAPI.cache.TaskCache;
+import com.example.TaskListAPI.dto.TaskChangeEvent;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TaskChangeFeedTest {
+
+    private static final int SENDERS = 2;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private TaskChangeFeed taskChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskChangeFeed = new TaskChangeFeed(jdbcTemplate, objectMapper, meterRegistry, 3,
+            Duration.ofMinutes(1), Duration.ofMinutes(1), SENDERS);
+        taskChangeFeed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskChangeFeed.stop();
+    }
+
+    @Test
+    void publish_ShouldNotifyEveryEventInOneStatement() {
+        // Given
+        List<TaskChangeEvent> events = List.of(TaskChangeEvent.created(UUID.randomUUID()),
+            TaskChangeEvent.deleted(UUID.randomUUID()));
+
+        // When
+        taskChangeFeed.publish(events);
+
+        // Then
+        verify(jdbcTemplate).query(any(String.class), any(ResultSetExtractor.class), eq(TaskChangeFeed.CHANNEL),
+            argThat((String[] payloads) -> payloads.length == 2 && payloads[1].contains("\"DELETED\"")));
+    }
+
+    @Test
+    void changeCount_ShouldMove_WhenAChangeIsPublishedOrHeard() throws Exception {
+        // Given
+        long before = taskChangeFeed.changeCount();
+
+        // When
+        taskChangeFeed.publish(TaskChangeEvent.created(UUID.randomUUID()));
+        long afterPublish = taskChangeFeed.changeCount();
+        notifyChange();
+
+        // Then
+        assertThat(afterPublish).isGreaterThan(before);
+        assertThat(taskChangeFeed.changeCount()).isGreaterThan(afterPublish);
+    }
+
+    @Test
+    void onNotification_ShouldSendEventToEverySubscriber() throws Exception {
+        // Given
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        taskChangeFeed.subscribe(first, null);
+        taskChangeFeed.subscribe(second, null);
+
+        // When
+        String eventId = notifyChange();
+
+        // Then
+        assertThat(first.awaitEvents(2)).containsExactly("connected", eventId);
+        assertThat(second.awaitEvents(2)).containsExactly("connected", eventId);
+        assertThat(meterRegistry.get("task.changes.subscribers").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void subscribe_ShouldReplayEventsAfterLastEventId() throws Exception {
+        // Given
+        String seen = notifyChange();
+        String missed = notifyChange();
+        String alsoMissed = notifyChange();
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // When
+        taskChangeFeed.subscribe(emitter, seen);
+        String live = notifyChange();
+
+        // Then
+        assertThat(emitter.awaitEvents(4)).containsExactly("connected", missed, alsoMissed, live);
+    }
+
+    @Test
+    void subscribe_ShouldSendReset_WhenLastEventIdIsNoLongerBuffered() throws Exception {
+        // Given
+        String evicted = notifyChange();
+        notifyChange();
+        notifyChange();
+        notifyChange();
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // When
+        taskChangeFeed.subscribe(emitter, evicted);
+
+        // Then
+        assertThat(emitter.awaitEvents(2)).containsExactly("connected", "reset");
+    }
+
+    @Test
+    void onMissedNotifications_ShouldResetSubscribersAndForgetBufferedEvents() throws Exception {
+        // Given
+        String beforeGap = notifyChange();
+        RecordingEmitter subscribed = new RecordingEmitter();
+        taskChangeFeed.subscribe(subscribed, null);
+
+        // When
+        taskChangeFeed.onMissedNotifications();
+        RecordingEmitter reconnecting = new RecordingEmitter();
+        taskChangeFeed.subscribe(reconnecting, beforeGap);
+
+        // Then
+        assertThat(subscribed.awaitEvents(2)).containsExactly("connected", "reset");
+        assertThat(reconnecting.awaitEvents(2)).containsExactly("connected", "reset");
+    }
+
+    @Test
+    void onNotification_ShouldNotWaitForStalledSubscriber_AndShouldDropItOnceTooFarBehind() throws Exception {
+        // Given
+        BlockingEmitter stalled = new BlockingEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        taskChangeFeed.subscribe(stalled, null);
+        taskChangeFeed.subscribe(healthy, null);
+        TaskCache taskCache = new TaskCache(jdbcTemplate, meterRegistry, 100, Duration.ofMinutes(1));
+        UUID cachedId = UUID.randomUUID();
+        taskCache.get(cachedId, id -> new TaskResponse());
+        assertThat(stalled.writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When: the listener thread delivers more changes than a subscriber may fall behind, then an invalidation
+        int changes = 300;
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < changes; i++) {
+                notifyChange();
+            }
+            taskCache.onNotification(cachedId.toString());
+        });
+
+        // Then
+        assertThat(healthy.awaitEvents(changes + 1)).hasSize(changes + 1);
+        assertThat(taskCache.getIfPresent(cachedId)).isNull();
+        assertThat(meterRegistry.get("task.changes.subscribers").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("task.changes.dropped").counter().count()).isEqualTo(1);
+        stalled.release.countDown();
+    }
+
+    @Test
+    void onNotification_ShouldKeepSenderThreadsFlat_WhenManySubscribersAreStalled() throws Exception {
+        // Given - more stalled clients than there are sender threads
+        List<BlockingEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            BlockingEmitter emitter = new BlockingEmitter();
+            stalled.add(emitter);
+            taskChangeFeed.subscribe(emitter, null);
+        }
+
+        // When
+        notifyChange();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stalled.stream().filter(emitter -> emitter.writing.getCount() == 0).count() < SENDERS
+            && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+
+        // Then
+        assertThat(senderThreads()).isEqualTo(SENDERS);
+        assertThat(stalled.stream().filter(emitter -> emitter.writing.getCount() == 0).count()).isEqualTo(SENDERS);
+        stalled.forEach(emitter -> emitter.release.countDown());
+    }
+
+    private static long senderThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.isAlive() && thread.getName().equals("task-changes-sender"))
+            .count();
+    }
+
+    private String notifyChange() throws Exception {
+        TaskChangeEvent event = TaskChangeEvent.updated(UUID.randomUUID(), 1);
+        taskChangeFeed.onNotification(objectMapper.writeValueAsString(event));
+        return event.getId();
+    }
+
+    // Records each event sent as its id, its name, or its comment, in that order of preference
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            String raw = items.stream().map(item -> item.getData().toString()).collect(Collectors.joining());
+            events.add(raw.lines()
+                .filter(line -> line.startsWith("id:") || line.startsWith("event:") || line.startsWith(":"))
+                .findFirst()
+                .map(line -> line.substring(line.indexOf(':') + 1))
+                .orElse(raw));
+        }
+
+        // Events are written by a sender thread, so they are waited for
+        List<String> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return events;
+        }
+    }
+
+    // A client that stops reading: its first write blocks until released
+    private static class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.TaskListAPI.coalesce;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, Object> singleFlight;
+    private ExecutorService executor;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldShareOneLoad_AmongConcurrentCallers() throws Exception {
+        // Given
+        Object result = new Object();
+
+        // When
+        List<Future<Object>> calls = startCalls("key", () -> result);
+        awaitFollowers(CALLERS - 1);
+        release.countDown();
+
+        // Then
+        for (Future<Object> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(calls("leader")).isEqualTo(1);
+        assertThat(calls("follower")).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void execute_ShouldPassLeadersException_ToEveryCaller() throws Exception {
+        // When
+        List<Future<Object>> calls = startCalls("key", () -> {
+            throw new IllegalStateException("query failed");
+        });
+        awaitFollowers(CALLERS - 1);
+        release.countDown();
+
+        // Then
+        for (Future<Object> call : calls) {
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void execute_ShouldLoadAgain_OnceFlightHasLanded() {
+        // When
+        singleFlight.execute("key", () -> loads.incrementAndGet());
+        singleFlight.execute("key", () -> loads.incrementAndGet());
+        singleFlight.execute("other", () -> loads.incrementAndGet());
+
+        // Then
+        assertThat(loads).hasValue(3);
+        assertThat(calls("follower")).isZero();
+    }
+
+    @Test
+    void forget_ShouldStartNewFlight_ForLaterCallers() throws Exception {
+        // Given
+        Future<Object> before = startCalls("key", () -> "before write", 1).get(0);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        singleFlight.forget("key");
+        Object after = singleFlight.execute("key", () -> "after write");
+        release.countDown();
+
+        // Then
+        assertThat(after).isEqualTo("after write");
+        assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+        assertThat(calls("leader")).isEqualTo(2);
+
+        // And the first flight landing did not drop anything newer
+        assertThat(singleFlight.execute("key", () -> "next")).isEqualTo("next");
+    }
+
+    private List<Future<Object>> startCalls(String key, Supplier<Object> result) {
+        return startCalls(key, result, CALLERS);
+    }
+
+    private List<Future<Object>> startCalls(String key, Supplier<Object> result, int callers) {
+        List<Future<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            calls.add(executor.submit(() -> singleFlight.execute(key, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return result.get();
+            })));
+        }
+        return calls;
+    }
+
+    private void awaitFollowers(int followers) throws InterruptedException {
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls("follower") < followers && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double calls(String role) {
+        return meterRegistry.get("task.coalescing.calls").tag("read", "test").tag("role", role).counter().count();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.TaskListAPI.coalesce;
+
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskPageResponse;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.repository.TaskRepository;
+import com.example.TaskListAPI.service.TaskService.Versioned;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskPageCoalescerIntegrationTest {
+
+    // More callers than the pool has connections: followers wait without one
+    private static final int CALLERS = 20;
+
+    @Autowired
+    private TaskPageCoalescer taskPageCoalescer;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        task = new Task();
+        task.setTitle("Coalesced Task");
+        task.setDescription("Read by every caller at once");
+        task.setDueDate(LocalDate.now().plusDays(7));
+        task.setStatus(Status.PENDING);
+        task.setPriority(Task.Priority.HIGH);
+        task = taskRepository.save(task);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteById(task.getId());
+    }
+
+    @Test
+    void getTasksByStatus_ShouldSendOneVersionReadAndOnePageQuery_ForConcurrentIdenticalReads() throws Exception {
+        // Given - the page query blocks on a table lock until every caller is waiting for it
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        double followersBefore = followers();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<Versioned<TaskPageResponse>>> pages = new ArrayList<>();
+        long statementsBefore;
+        int activeWhileWaiting;
+
+        try (Connection lock = dataSource.getConnection()) {
+            lock.setAutoCommit(false);
+            try (Statement statement = lock.createStatement()) {
+                statement.execute("LOCK TABLE tasks IN ACCESS EXCLUSIVE MODE");
+            }
+            statementsBefore = statistics.getPrepareStatementCount();
+
+            // When
+            for (int i = 0; i < CALLERS; i++) {
+                pages.add(executor.submit(() -> taskPageCoalescer.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (followers() - followersBefore < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            activeWhileWaiting = pool.getHikariPoolMXBean().getActiveConnections();
+            lock.rollback();
+        }
+
+        // Then - the lock and the leader hold a connection, and the statements do not grow with the callers
+        Versioned<TaskPageResponse> first = pages.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<Versioned<TaskPageResponse>> page : pages) {
+            assertThat(page.get(10, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        executor.shutdown();
+        assertThat(first.value().getItems()).isNotEmpty();
+        assertThat(followers() - followersBefore).isEqualTo(CALLERS - 1);
+        assertThat(activeWhileWaiting).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount() - statementsBefore).isEqualTo(2);
+    }
+
+    private double followers() {
+        return meterRegistry.get("task.coalescing.calls").tag("read", "status").tag("role", "follower").counter().count();
+    }
+}
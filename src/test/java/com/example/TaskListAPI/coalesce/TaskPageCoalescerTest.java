@@ -0,0 +1,162 @@
+package com.example.TaskListAPI.coalesce;
+
+import com.example.TaskListAPI.changes.TaskChangeFeed;
+import com.example.TaskListAPI.datasource.ReplicaDataSource;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskPageResponse;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.service.TaskService;
+import com.example.TaskListAPI.service.TaskService.Versioned;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaskPageCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final TaskService taskService = mock(TaskService.class);
+    private final TaskChangeFeed taskChangeFeed = mock(TaskChangeFeed.class);
+    private final ReplicaDataSource replicaDataSource = new ReplicaDataSource(mock(DataSource.class), Map.of(),
+        new SimpleMeterRegistry(), Duration.ofSeconds(10), Duration.ofSeconds(5));
+    private final TaskPageResponse page = new TaskPageResponse(List.of(), null, 10);
+    private SimpleMeterRegistry meterRegistry;
+    private TaskPageCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new TaskPageCoalescer(taskService, taskChangeFeed, Optional.of(replicaDataSource), meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+        when(taskService.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL)).thenReturn(page);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getTasksByStatus_ShouldReadOnce_ForConcurrentIdenticalReads() throws Exception {
+        // Given - the first read blocks until every other caller is waiting for it
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.readAtCollectionVersion(any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return new Versioned<>(7L, invocation.<Supplier<?>>getArgument(0).get());
+        });
+
+        // When
+        List<Future<Versioned<TaskPageResponse>>> reads = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            reads.add(executor.submit(() -> coalescer.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL)));
+        }
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls("follower") < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        // Then
+        for (Future<Versioned<TaskPageResponse>> read : reads) {
+            assertThat(read.get(5, TimeUnit.SECONDS).value()).isSameAs(page);
+            assertThat(read.get().collectionVersion()).isEqualTo(7L);
+        }
+        assertThat(calls("leader")).isEqualTo(1);
+        assertThat(calls("follower")).isEqualTo(CALLERS - 1);
+        verify(taskService, times(1)).readAtCollectionVersion(any());
+        verify(taskService, times(1)).getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL);
+    }
+
+    @Test
+    void getTasksByStatus_ShouldReadAgain_WhenATaskChanged() {
+        // Given
+        when(taskService.readAtCollectionVersion(any())).thenAnswer(invocation ->
+            new Versioned<>(7L, invocation.<Supplier<?>>getArgument(0).get()));
+        when(taskChangeFeed.changeCount()).thenReturn(1L, 2L);
+
+        // When
+        coalescer.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL);
+        coalescer.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL);
+
+        // Then
+        verify(taskService, times(2)).getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL);
+        assertThat(calls("follower")).isZero();
+    }
+
+    @Test
+    void getTasksByStatus_ShouldReadAgain_WhenThePreviousReadIsDone() {
+        // Given - no task changed in between, as a replica behind the primary would also show
+        when(taskService.readAtCollectionVersion(any())).thenAnswer(invocation ->
+            new Versioned<>(7L, invocation.<Supplier<?>>getArgument(0).get()));
+        when(taskChangeFeed.changeCount()).thenReturn(1L);
+
+        // When
+        coalescer.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL);
+        coalescer.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL);
+
+        // Then
+        verify(taskService, times(2)).readAtCollectionVersion(any());
+        assertThat(calls("leader")).isEqualTo(2);
+    }
+
+    @Test
+    void getTasksByStatus_ShouldNotShareAReplicaRead_WithAReadPinnedToThePrimary() throws Exception {
+        // Given - a read that may go to a replica is in flight
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.readAtCollectionVersion(any())).thenAnswer(invocation -> {
+            if (!replicaDataSource.readsFromPrimary()) {
+                reading.countDown();
+                release.await();
+            }
+            return new Versioned<>(7L, invocation.<Supplier<?>>getArgument(0).get());
+        });
+        Future<Versioned<TaskPageResponse>> replicaRead = executor.submit(() -> {
+            try (ReplicaDataSource.Scope ignored = replicaDataSource.openScope(false)) {
+                return coalescer.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL);
+            }
+        });
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When - a client that has just written reads the same page
+        Future<Versioned<TaskPageResponse>> primaryRead = executor.submit(() -> {
+            try (ReplicaDataSource.Scope ignored = replicaDataSource.openScope(true)) {
+                return coalescer.getTasksByStatus(Status.PENDING, null, 10, TaskFields.ALL);
+            }
+        });
+
+        // Then - it reads on its own instead of waiting for the replica read
+        assertThat(primaryRead.get(5, TimeUnit.SECONDS).value()).isSameAs(page);
+        assertThat(replicaRead).isNotDone();
+        release.countDown();
+        assertThat(replicaRead.get(5, TimeUnit.SECONDS).value()).isSameAs(page);
+        assertThat(calls("leader")).isEqualTo(2);
+        assertThat(calls("follower")).isZero();
+    }
+
+    private double calls(String role) {
+        return meterRegistry.get("task.coalescing.calls").tag("read", "status").tag("role", role).counter().count();
+    }
+}
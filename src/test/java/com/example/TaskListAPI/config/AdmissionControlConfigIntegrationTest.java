@@ -0,0 +1,88 @@
+package com.example.TaskListAPI.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The test database stands in for its own replica, and every request counts as slow
+@SpringBootTest(properties = {
+    "task.datasource.replica-urls=${spring.datasource.url}",
+    "task.admission.latency-threshold=0ms"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AdmissionControlConfigIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void primaryPool_ShouldFindPrimaryPool_BehindReplicaRouting() throws Exception {
+        // Given
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+
+        // When
+        HikariDataSource pool = AdmissionControlConfig.primaryPool(dataSource);
+
+        // Then
+        assertThat(pool).isSameAs(primaryDataSource);
+        mockMvc.perform(get("/api/tasks").param("limit", "5"))
+                .andExpect(status().isOk());
+        assertThat(meterRegistry.get("task.admission.limit").tag("kind", "read").gauge().value()).isPositive();
+    }
+
+    @Test
+    void addInterceptors_ShouldLeaveBulkWritesOutOfTheWriteLimit() throws Exception {
+        // Given
+        double decreasesBefore = writeLimitDecreases();
+
+        // When - bulk writes with nothing valid to write, so no task is left behind
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/tasks/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"title\": \"\"}]"))
+                .andExpect(status().isMultiStatus());
+            mockMvc.perform(patch("/api/tasks/status")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"changes\": [{\"id\": \"" + UUID.randomUUID() + "\", \"status\": \"COMPLETED\"}]}"))
+                .andExpect(status().isOk());
+        }
+        double afterBulkWrites = writeLimitDecreases();
+        mockMvc.perform(delete("/api/tasks/{id}", UUID.randomUUID()))
+            .andExpect(status().isNotFound());
+
+        // Then - only the single-task write counts against the limit
+        assertThat(afterBulkWrites).isEqualTo(decreasesBefore);
+        assertThat(writeLimitDecreases()).isGreaterThan(afterBulkWrites);
+    }
+
+    private double writeLimitDecreases() {
+        return meterRegistry.get("task.admission.decreases").tag("kind", "write").counter().count();
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.TaskListAPI.controller;
 
 import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskStatusBulkRequest;
+import com.example.TaskListAPI.dto.TaskStatusChange;
+import com.example.TaskListAPI.dto.TaskStatusFilter;
 import com.example.TaskListAPI.entity.Task;
 import com.example.TaskListAPI.enums.Status;
 import com.example.TaskListAPI.repository.TaskRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,13 +18,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -78,7 +91,7 @@ class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.description").value(taskRequest.getDescription()))
                 .andExpect(jsonPath("$.status").value(taskRequest.getStatus().toString()))
                 .andExpect(jsonPath("$.priority").value(taskRequest.getPriority().toString()))
-                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.id").value(matchesPattern("[0-9a-f]{8}-[0-9a-f]{4}-7[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}")))
                 .andExpect(jsonPath("$.createdAt").exists())
                 .andExpect(jsonPath("$.updatedAt").exists());
     }
@@ -99,13 +112,160 @@ class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.errors").exists());
     }
 
+    @Test
+    void submitTask_ShouldReturnBadRequest_WhenInvalidRequest() throws Exception {
+        // Given
+        TaskRequest invalidRequest = new TaskRequest("", null, null, Status.PENDING, Task.Priority.LOW);
+
+        // When & Then
+        mockMvc.perform(post("/api/tasks/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.title").exists());
+    }
+
+    @Test
+    void createTasks_ShouldReturnCreated_WhenAllTasksValid() throws Exception {
+        // Given
+        String batchJson = objectMapper.writeValueAsString(List.of(taskRequest, taskRequest));
+
+        // When & Then
+        mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchJson))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].task.id").exists());
+    }
+
+    @Test
+    void createTasks_ShouldReportEachInvalidTask_WhenSomeTasksInvalid() throws Exception {
+        // Given
+        String batchJson = objectMapper.writeValueAsString(List.of(taskRequest, new TaskRequest()));
+
+        // When & Then
+        mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchJson))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].outcome").value("INVALID"))
+                .andExpect(jsonPath("$.results[1].errors.title").exists());
+    }
+
     @Test
     void getAllTasks_ShouldReturnAllTasks() throws Exception {
         // When & Then
-        mockMvc.perform(get("/api/tasks"))
+        mockMvc.perform(get("/api/tasks").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$.limit").value(500))
+                .andExpect(jsonPath("$.items[?(@.id == '" + task.getId() + "')].title").value(task.getTitle()));
+    }
+
+    @Test
+    void getAllTasks_ShouldWalkEveryTaskOnce_WhenFollowingNextCursor() throws Exception {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            Task extraTask = new Task("Paged Task " + i, null, null, Status.PENDING, Task.Priority.LOW);
+            taskRepository.save(extraTask);
+        }
+        taskRepository.flush();
+        long total = taskRepository.count();
+
+        // When
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            var request = get("/api/tasks").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(lessThanOrEqualTo(2))))
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("items").forEach(item -> seen.add(item.get("id").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        // Then
+        assertThat(seen).hasSize((int) total);
+    }
+
+    @Test
+    void getAllTasks_ShouldReturnBadRequest_WhenCursorIsInvalid() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tasks").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value(containsString("Invalid cursor")));
+    }
+
+    @Test
+    void getTasksByStatus_ShouldReturnOnlyRequestedFields_WhenFollowingNextCursor() throws Exception {
+        // Given
+        for (Task.Priority priority : Task.Priority.values()) {
+            taskRepository.save(new Task("Sparse Task " + priority, "Not requested", null, Status.PENDING, priority));
+        }
+        taskRepository.flush();
+        long pending = taskRepository.findByStatus(Status.PENDING).size();
+
+        // When
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            var request = get("/api/tasks/filter").param("status", "PENDING").param("limit", "2").param("fields", "title");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("items").forEach(item -> {
+                List<String> names = new ArrayList<>();
+                item.fieldNames().forEachRemaining(names::add);
+                assertThat(names).containsExactly("id", "title");
+                seen.add(item.get("id").asText());
+            });
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        // Then
+        assertThat(seen).hasSize((int) pending);
+    }
+
+    @Test
+    void getAllTasks_ShouldReturnBadRequest_WhenFieldIsUnknown() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tasks").param("fields", "title,owner"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Unknown field 'owner'")));
+    }
+
+    @Test
+    void exportTasks_ShouldStreamNdjson() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then - the export runs in its own transaction, so only committed rows are streamed
+        String body = mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1))))
-                .andExpect(jsonPath("$[?(@.id == '" + task.getId() + "')].title").value(task.getTitle()));
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        for (String line : body.lines().toList()) {
+            assertThat(objectMapper.readTree(line).get("id")).isNotNull();
+        }
     }
 
     @Test
@@ -132,6 +292,24 @@ class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value(containsString("Task not found")));
     }
 
+    @Test
+    void getTaskById_ShouldReturnSmile_WhenAccepted() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))))
+                .andReturn();
+
+        // Then
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+        TaskResponse response = smileMapper.readValue(result.getResponse().getContentAsByteArray(), TaskResponse.class);
+        assertThat(response.getId()).isEqualTo(task.getId());
+        assertThat(response.getTitle()).isEqualTo(task.getTitle());
+        assertThat(response.getDueDate()).isEqualTo(task.getDueDate());
+    }
+
     @Test
     void updateTask_ShouldReturnUpdatedTask_WhenTaskExists() throws Exception {
         // Given
@@ -189,8 +367,45 @@ class TaskControllerIntegrationTest {
         mockMvc.perform(get("/api/tasks/filter")
                 .param("status", Status.PENDING.toString()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1))))
-                .andExpect(jsonPath("$[?(@.status == '" + Status.PENDING + "')]").exists());
+                .andExpect(jsonPath("$.items", hasSize(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$.items[?(@.status == '" + Status.PENDING + "')]").exists());
+    }
+
+    @Test
+    void getTasksByStatus_ShouldPageInPriorityOrder_WhenFollowingNextCursor() throws Exception {
+        // Given
+        for (Task.Priority priority : Task.Priority.values()) {
+            for (int i = 0; i < 2; i++) {
+                taskRepository.save(new Task("Filtered " + priority + " " + i, null, null, Status.CANCELLED, priority));
+            }
+        }
+        taskRepository.flush();
+        List<String> expected = taskRepository.findByStatus(Status.CANCELLED).stream()
+                .sorted(Comparator.comparing((Task t) -> t.getPriority().getRank()).reversed()
+                        .thenComparing(Task::getCreatedAt)
+                        .thenComparing(Task::getId))
+                .map(t -> t.getId().toString())
+                .toList();
+
+        // When
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/tasks/filter").param("status", Status.CANCELLED.toString()).param("limit", "1");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> seen.add(item.get("id").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        // Then
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(seen.subList(0, 2)).allMatch(id -> taskRepository.findById(UUID.fromString(id))
+                .orElseThrow().getPriority() == Task.Priority.HIGH);
     }
 
     @Test
@@ -229,8 +444,39 @@ class TaskControllerIntegrationTest {
         mockMvc.perform(get("/api/tasks/search")
                 .param("keyword", keyword))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1))))
-                .andExpect(jsonPath("$[?(@.title contains '" + keyword + "')]").exists());
+                .andExpect(jsonPath("$.items", hasSize(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$.items[?(@.title contains '" + keyword + "')]").exists());
+    }
+
+    @Test
+    void searchTasks_ShouldRankTitleMatchesFirstAndPageByRank() throws Exception {
+        // Given
+        Task descriptionMatch = taskRepository.save(
+                new Task("Quarterly report", "Needs the zeppelin figures", null, Status.PENDING, Task.Priority.LOW));
+        Task titleMatch = taskRepository.save(
+                new Task("Zeppelin launch", "Prepare the hangar", null, Status.PENDING, Task.Priority.LOW));
+        taskRepository.flush();
+
+        // When
+        String body = mockMvc.perform(get("/api/tasks/search")
+                .param("keyword", "zeppelins")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(titleMatch.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        // Then
+        mockMvc.perform(get("/api/tasks/search")
+                .param("keyword", "zeppelins")
+                .param("limit", "1")
+                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(descriptionMatch.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
     }
 
     @Test
@@ -247,6 +493,220 @@ class TaskControllerIntegrationTest {
         // When & Then
         mockMvc.perform(get("/api/tasks/overdue"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1))));
+                .andExpect(jsonPath("$.items", hasSize(greaterThanOrEqualTo(1))));
+    }
+
+    @Test
+    void queryTasks_ShouldPageInRequestedOrder_WhenCombiningCriteria() throws Exception {
+        // Given
+        int i = 0;
+        for (Status status : List.of(Status.PENDING, Status.IN_PROGRESS, Status.COMPLETED)) {
+            for (Task.Priority priority : Task.Priority.values()) {
+                LocalDate dueDate = i % 3 == 0 ? null : LocalDate.now().plusDays(i % 4);
+                taskRepository.save(new Task("Queried " + i++, null, dueDate, status, priority));
+            }
+        }
+        taskRepository.flush();
+        Comparator<LocalDate> nullsFirstDescending = Comparator.nullsFirst(Comparator.<LocalDate>reverseOrder());
+        List<String> expected = taskRepository.findAll().stream()
+                .filter(t -> t.getStatus() == Status.PENDING || t.getStatus() == Status.IN_PROGRESS)
+                .filter(t -> t.getPriority() != Task.Priority.MEDIUM)
+                .sorted(Comparator.comparing(Task::getDueDate, nullsFirstDescending)
+                        .thenComparing(t -> t.getPriority().getRank())
+                        .thenComparing(Task::getId))
+                .map(t -> t.getId().toString())
+                .toList();
+
+        // When
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/tasks/query")
+                    .param("status", "PENDING,IN_PROGRESS")
+                    .param("priority", "HIGH", "LOW")
+                    .param("sort", "-dueDate,priority")
+                    .param("limit", "1");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> seen.add(item.get("id").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        // Then
+        assertThat(seen).hasSize(4).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void queryTasks_ShouldMatchKeywordWithinDueRange() throws Exception {
+        // Given
+        Task inRange = taskRepository.save(new Task("Zeppelin launch", null, LocalDate.now().plusDays(3),
+                Status.PENDING, Task.Priority.LOW));
+        taskRepository.save(new Task("Zeppelin landing", null, LocalDate.now().plusDays(30),
+                Status.PENDING, Task.Priority.LOW));
+        taskRepository.save(new Task("Hangar rent", null, LocalDate.now().plusDays(3),
+                Status.PENDING, Task.Priority.LOW));
+        taskRepository.flush();
+
+        // When & Then
+        mockMvc.perform(get("/api/tasks/query")
+                .param("keyword", "zeppelins")
+                .param("dueFrom", LocalDate.now().toString())
+                .param("dueTo", LocalDate.now().plusDays(7).toString())
+                .param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(inRange.getId().toString()))
+                .andExpect(jsonPath("$.items[0].title").value("Zeppelin launch"))
+                .andExpect(jsonPath("$.items[0].dueDate").doesNotExist());
+    }
+
+    @Test
+    void queryTasks_ShouldReturnBadRequest_WhenSortKeyIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/tasks/query").param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Unknown sort key 'title'")));
+    }
+
+    @Test
+    void getTaskById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Given
+        MvcResult first = mockMvc.perform(get("/api/tasks/{id}", task.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()).header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(task.getId().toString()));
+    }
+
+    @Test
+    void getTasksByStatus_ShouldReturnNotModified_UntilAnyTaskIsWritten() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/tasks/filter").param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/tasks/filter").param("status", "PENDING").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(taskRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/tasks/filter").param("status", "PENDING").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    @Test
+    void updateTask_ShouldApplyOnlyWhileIfMatchIsCurrent() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/tasks/{id}", task.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String taskRequestJson = objectMapper.writeValueAsString(taskRequest);
+
+        // When & Then
+        String newETag = mockMvc.perform(put("/api/tasks/{id}", task.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", eTag)
+                .content(taskRequestJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)))
+                .andExpect(jsonPath("$.title").value(taskRequest.getTitle()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // A second editor still holding the old ETag loses instead of overwriting
+        mockMvc.perform(put("/api/tasks/{id}", task.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", eTag)
+                .content(taskRequestJson))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+
+        mockMvc.perform(patch("/api/tasks/{id}/status", task.getId())
+                .param("status", "COMPLETED")
+                .header("If-Match", newETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void updateTaskStatus_ShouldReturnPreconditionFailed_WhenIfMatchIsStale() throws Exception {
+        // When & Then
+        mockMvc.perform(patch("/api/tasks/{id}/status", task.getId())
+                .param("status", "COMPLETED")
+                .header("If-Match", "\"41\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(containsString("has changed")));
+    }
+
+    @Test
+    void updateTaskStatuses_ShouldReportChangedRows_WhenGivenChanges() throws Exception {
+        // Given
+        String json = objectMapper.writeValueAsString(new TaskStatusBulkRequest(List.of(
+            new TaskStatusChange(task.getId(), Status.COMPLETED),
+            new TaskStatusChange(UUID.randomUUID(), Status.COMPLETED))));
+
+        // When & Then
+        mockMvc.perform(patch("/api/tasks/status").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1));
+
+        // Already COMPLETED, so nothing changes the second time
+        mockMvc.perform(patch("/api/tasks/status").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(0));
+    }
+
+    @Test
+    void updateTaskStatuses_ShouldCancelOverduePendingTasks_WhenGivenFilter() throws Exception {
+        // Given
+        Task overdue = new Task("Overdue Task", null, LocalDate.now().minusDays(1), Status.PENDING, Task.Priority.LOW);
+        overdue = taskRepository.save(overdue);
+        String json = objectMapper.writeValueAsString(
+            new TaskStatusBulkRequest(new TaskStatusFilter(Status.PENDING, true), Status.CANCELLED));
+
+        // When & Then
+        mockMvc.perform(patch("/api/tasks/status").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(greaterThanOrEqualTo(1)));
+
+        mockMvc.perform(get("/api/tasks/{id}", overdue.getId()))
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void updateTaskStatuses_ShouldReturnBadRequest_WhenBothChangesAndFilterGiven() throws Exception {
+        // Given
+        TaskStatusBulkRequest request = new TaskStatusBulkRequest(new TaskStatusFilter(Status.PENDING, false), Status.CANCELLED);
+        request.setChanges(List.of(new TaskStatusChange(task.getId(), Status.COMPLETED)));
+
+        // When & Then
+        mockMvc.perform(patch("/api/tasks/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.changesOrFilter").exists());
     }
 }
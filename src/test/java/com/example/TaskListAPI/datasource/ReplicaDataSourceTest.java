@@ -0,0 +1,148 @@
+package com.example.TaskListAPI.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replicaA;
+
+    @Mock
+    private DataSource replicaB;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaAConnection;
+
+    @Mock
+    private Connection replicaBConnection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaDataSource replicaDataSource;
+    private final Map<DataSource, Double> lags = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        lenient().when(replicaB.getConnection()).thenReturn(replicaBConnection);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("a", replicaA);
+        replicas.put("b", replicaB);
+        meterRegistry = new SimpleMeterRegistry();
+        replicaDataSource = new ReplicaDataSource(primary, replicas, meterRegistry, Duration.ofSeconds(10),
+                Duration.ofSeconds(5)) {
+            @Override
+            double replicationLag(DataSource replica) throws SQLException {
+                Double lag = lags.get(replica);
+                if (lag == null) {
+                    throw new SQLException("Connection refused");
+                }
+                return lag;
+            }
+        };
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimary_UntilAReplicaHasPassedACheck() throws SQLException {
+        // When
+        Connection connection = replicaDataSource.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        verify(primaryConnection).setReadOnly(true);
+        assertThat(meterRegistry.get("task.datasource.reads").tag("target", "primary").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_ShouldSkipReplica_WhenItLagsOrIsUnreachable() throws SQLException {
+        // Given
+        lags.put(replicaA, 0.5);
+        lags.put(replicaB, 30.0);
+        replicaDataSource.checkReplicas();
+
+        // When & Then
+        for (int i = 0; i < 4; i++) {
+            assertThat(replicaDataSource.getConnection()).isSameAs(replicaAConnection);
+        }
+
+        lags.remove(replicaA);
+        replicaDataSource.checkReplicas();
+        assertThat(replicaDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("task.datasource.replica.healthy").tag("replica", "a").gauge().value()).isZero();
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToPrimary_WhenReplicaRefusesConnection() throws SQLException {
+        // Given
+        lags.put(replicaA, 0.0);
+        replicaDataSource.checkReplicas();
+        when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // When
+        Connection first = replicaDataSource.getConnection();
+
+        // Then
+        assertThat(first).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("task.datasource.replica.healthy").tag("replica", "a").gauge().value()).isZero();
+    }
+
+    @Test
+    void openScope_ShouldPinOneReplica_AndFallBackToPrimaryOnceItIsDown() throws SQLException {
+        // Given
+        lags.put(replicaA, 0.0);
+        lags.put(replicaB, 0.0);
+        replicaDataSource.checkReplicas();
+
+        // When & Then
+        try (ReplicaDataSource.Scope ignored = replicaDataSource.openScope(false)) {
+            Connection pinned = replicaDataSource.getConnection();
+            assertThat(replicaDataSource.getConnection()).isSameAs(pinned);
+            assertThat(replicaDataSource.getConnection()).isSameAs(pinned);
+
+            lags.remove(pinned == replicaAConnection ? replicaA : replicaB);
+            replicaDataSource.checkReplicas();
+            assertThat(replicaDataSource.getConnection()).isSameAs(primaryConnection);
+        }
+    }
+
+    @Test
+    void openScope_ShouldReadFromPrimary_WhenPrimaryOnly() throws SQLException {
+        // Given
+        lags.put(replicaA, 0.0);
+        replicaDataSource.checkReplicas();
+
+        // When & Then
+        try (ReplicaDataSource.Scope ignored = replicaDataSource.openScope(true)) {
+            assertThat(replicaDataSource.readsFromPrimary()).isTrue();
+            assertThat(replicaDataSource.getConnection()).isSameAs(primaryConnection);
+        }
+        assertThat(replicaDataSource.readsFromPrimary()).isFalse();
+        assertThat(replicaDataSource.getConnection()).isSameAs(replicaAConnection);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.TaskListAPI.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_ShouldReturnVersion7IdsCarryingTheCurrentTime() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID id = UuidV7Generator.next();
+
+        // Then
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void next_ShouldReturnStrictlyIncreasingIds_WithinTheSameMillisecond() {
+        // Given
+        UUID previous = UuidV7Generator.next();
+
+        for (int i = 0; i < 100_000; i++) {
+            // When
+            UUID next = UuidV7Generator.next();
+
+            // Then - compared as unsigned bytes, the order PostgreSQL sorts uuid in
+            assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+                .isPositive();
+            previous = next;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.TaskListAPI.ingest;
+
+import com.example.TaskListAPI.changes.TaskChangeFeed;
+import com.example.TaskListAPI.dto.TaskRequest;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.exception.IngestionQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class TaskIngestionQueueTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskChangeFeed taskChangeFeed;
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Integer> committedBatchSizes;
+    private TaskRequest taskRequest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        committedBatchSizes = new CopyOnWriteArrayList<>();
+        taskRequest = new TaskRequest("Task", null, LocalDate.now(), Status.PENDING, Task.Priority.LOW);
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                committedBatchSizes.add(invocation.<Collection<?>>getArgument(1).size());
+                return new int[0][];
+            });
+    }
+
+    @Test
+    void stop_ShouldCommitQueuedTasksInBatchesOfAtMostBatchSize() {
+        // Given
+        TaskIngestionQueue queue = new TaskIngestionQueue(jdbcTemplate, transactionManager, taskChangeFeed, meterRegistry,
+            100, 2, Duration.ofMillis(5));
+        for (int i = 0; i < 5; i++) {
+            queue.submit(UUID.randomUUID(), taskRequest);
+        }
+
+        // When
+        queue.start();
+        queue.stop();
+
+        // Then
+        assertThat(committedBatchSizes).containsExactly(2, 2, 1);
+        assertThat(meterRegistry.get("task.ingest.batch.size").summary().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("task.ingest.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void submit_ShouldRejectImmediately_WhenQueueIsFull() {
+        // Given
+        TaskIngestionQueue queue = new TaskIngestionQueue(jdbcTemplate, transactionManager, taskChangeFeed, meterRegistry,
+            2, 500, Duration.ofMillis(5));
+        queue.submit(UUID.randomUUID(), taskRequest);
+        queue.submit(UUID.randomUUID(), taskRequest);
+
+        // When & Then
+        assertThrows(IngestionQueueFullException.class, () -> queue.submit(UUID.randomUUID(), taskRequest));
+        assertThat(meterRegistry.get("task.ingest.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("task.ingest.queue.depth").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void commit_ShouldRetryBatch_WhenDatabaseIsBrieflyUnavailable() throws Exception {
+        // Given: the first two attempts find no connection, as during a failover
+        AtomicInteger attempts = new AtomicInteger();
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                if (attempts.incrementAndGet() <= 2) {
+                    throw new CannotGetJdbcConnectionException("Connection refused");
+                }
+                committedBatchSizes.add(invocation.<Collection<?>>getArgument(1).size());
+                return new int[0][];
+            });
+        TaskIngestionQueue queue = new TaskIngestionQueue(jdbcTemplate, transactionManager, taskChangeFeed, meterRegistry,
+            100, 500, Duration.ofMillis(5));
+        queue.submit(UUID.randomUUID(), taskRequest);
+        queue.submit(UUID.randomUUID(), taskRequest);
+
+        // When
+        queue.start();
+        for (int i = 0; i < 100 && committedBatchSizes.isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        queue.stop();
+
+        // Then
+        assertThat(committedBatchSizes).containsExactly(2);
+        assertThat(meterRegistry.get("task.ingest.retried").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("task.ingest.failed").counter().count()).isZero();
+    }
+
+    @Test
+    void commit_ShouldSplitBatchAndKeepValidTasks_WhenDatabaseRefusesOne() {
+        // Given: any batch holding the invalid task violates a constraint
+        UUID invalidId = UUID.randomUUID();
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                Collection<?> batch = invocation.getArgument(1);
+                if (batch.toString().contains(invalidId.toString())) {
+                    throw new DataIntegrityViolationException("violates check constraint");
+                }
+                committedBatchSizes.add(batch.size());
+                return new int[0][];
+            });
+        TaskIngestionQueue queue = new TaskIngestionQueue(jdbcTemplate, transactionManager, taskChangeFeed, meterRegistry,
+            100, 500, Duration.ofMillis(5));
+        queue.submit(UUID.randomUUID(), taskRequest);
+        queue.submit(UUID.randomUUID(), taskRequest);
+        queue.submit(invalidId, taskRequest);
+        queue.submit(UUID.randomUUID(), taskRequest);
+
+        // When
+        queue.start();
+        queue.stop();
+
+        // Then: halves of 2 and 2, the second split again around the invalid task
+        assertThat(committedBatchSizes).containsExactly(2, 1);
+        assertThat(meterRegistry.get("task.ingest.failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("task.ingest.retried").counter().count()).isZero();
+    }
+
+    @Test
+    void commit_ShouldCountLostTasks_WhenDatabaseIsStillDownAtShutdown() {
+        // Given
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+            .thenThrow(new IllegalStateException("database down"));
+        TaskIngestionQueue queue = new TaskIngestionQueue(jdbcTemplate, transactionManager, taskChangeFeed, meterRegistry,
+            100, 500, Duration.ofMillis(5));
+        queue.submit(UUID.randomUUID(), taskRequest);
+        queue.submit(UUID.randomUUID(), taskRequest);
+
+        // When
+        queue.start();
+        queue.stop();
+
+        // Then
+        assertThat(meterRegistry.get("task.ingest.failed").counter().count()).isEqualTo(2);
+    }
+}
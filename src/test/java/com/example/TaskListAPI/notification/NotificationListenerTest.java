@@ -0,0 +1,76 @@
+package com.example.TaskListAPI.notification;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationListenerTest {
+
+    @Mock
+    private NotificationHandler handler;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private Statement statement;
+
+    @Test
+    void listen_ShouldReconnectAndReportMissedNotifications_WhenHealthCheckFails() throws Exception {
+        // Given: a connection that stays quiet, then fails its first health check as a dropped socket would
+        when(handler.channel()).thenReturn("tasks");
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        lenient().when(pgConnection.getNotifications(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return null;
+        });
+        lenient().when(statement.execute("SELECT 1"))
+            .thenThrow(new SQLException("An I/O error occurred while sending to the backend"))
+            .thenReturn(true);
+        AtomicInteger connections = new AtomicInteger();
+        NotificationListener listener = new NotificationListener(List.of(handler), new DataSourceProperties(),
+            Duration.ofMillis(50)) {
+            @Override
+            Connection openConnection() {
+                connections.incrementAndGet();
+                return connection;
+            }
+        };
+
+        // When
+        listener.start();
+
+        // Then: missed on first listening, on the failed check, and again once listening resumes
+        try {
+            verify(handler, timeout(5000).times(3)).onMissedNotifications();
+            verify(statement, timeout(5000).atLeast(2)).execute("LISTEN tasks");
+            assertThat(connections).hasValueGreaterThanOrEqualTo(2);
+        } finally {
+            listener.stop();
+        }
+        verify(connection, atLeast(1)).close();
+    }
+}
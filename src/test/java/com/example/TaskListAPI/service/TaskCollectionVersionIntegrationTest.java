@@ -0,0 +1,116 @@
+package com.example.TaskListAPI.service;
+
+import com.example.TaskListAPI.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskCollectionVersionIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<UUID> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllById(created);
+    }
+
+    @Test
+    void getCollectionVersion_ShouldNotMakeWritersWaitForEachOther() throws Exception {
+        // Given - a write that has started but not committed
+        try (Connection first = writer(); Connection second = writer()) {
+            insert(first, "First writer");
+
+            // When - a lock shared by every writer would make this one time out
+            insert(second, "Second writer");
+
+            // Then
+            second.commit();
+            first.commit();
+        }
+    }
+
+    @Test
+    void getCollectionVersion_ShouldChange_WhenOlderTransactionCommitsAfterNewerOne() throws Exception {
+        // Given - the older transaction has the lower transaction id but commits last
+        try (Connection older = writer(); Connection newer = writer()) {
+            insert(older, "Older transaction");
+            insert(newer, "Newer transaction");
+            newer.commit();
+            long beforeOlderCommits = taskService.getCollectionVersion();
+
+            // When
+            older.commit();
+
+            // Then
+            assertThat(taskService.getCollectionVersion()).isNotEqualTo(beforeOlderCommits);
+        }
+    }
+
+    @Test
+    void getCollectionVersion_ShouldChange_WhenTaskIsUpdatedOrDeleted() throws Exception {
+        // Given
+        UUID id;
+        try (Connection connection = writer()) {
+            id = insert(connection, "Changed later");
+            connection.commit();
+        }
+        long inserted = taskService.getCollectionVersion();
+
+        // When
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE tasks SET title = 'Updated' WHERE id = '" + id + "'");
+        }
+        long updated = taskService.getCollectionVersion();
+        taskRepository.deleteById(id);
+
+        // Then
+        assertThat(updated).isNotEqualTo(inserted);
+        assertThat(taskService.getCollectionVersion()).isNotIn(inserted, updated);
+    }
+
+    private Connection writer() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL lock_timeout = '2s'");
+        }
+        return connection;
+    }
+
+    private UUID insert(Connection connection, String title) throws SQLException {
+        UUID id = UUID.randomUUID();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO tasks (id, title, status, priority_rank) VALUES (?, ?, 'PENDING', 1)")) {
+            insert.setObject(1, id);
+            insert.setString(2, title);
+            insert.executeUpdate();
+        }
+        created.add(id);
+        return id;
+    }
+}
@@ -1,27 +1,60 @@
 package com.example.TaskListAPI.service;
 
+import com.example.TaskListAPI.cache.TaskCache;
+import com.example.TaskListAPI.changes.TaskChangeFeed;
+import com.example.TaskListAPI.dto.TaskBatchItemResult;
+import com.example.TaskListAPI.dto.TaskBatchResponse;
+import com.example.TaskListAPI.dto.TaskChangeEvent;
+import com.example.TaskListAPI.dto.TaskCursor;
+import com.example.TaskListAPI.dto.TaskFields;
+import com.example.TaskListAPI.dto.TaskPageResponse;
+import com.example.TaskListAPI.dto.TaskQuery;
 import com.example.TaskListAPI.dto.TaskRequest;
 import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskStatusBulkRequest;
+import com.example.TaskListAPI.dto.TaskStatusBulkResponse;
+import com.example.TaskListAPI.dto.TaskStatusChange;
+import com.example.TaskListAPI.dto.TaskStatusFilter;
 import com.example.TaskListAPI.entity.Task;
 import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.exception.BatchTooLargeException;
+import com.example.TaskListAPI.exception.InvalidCursorException;
+import com.example.TaskListAPI.exception.InvalidQueryException;
 import com.example.TaskListAPI.exception.TaskNotFoundException;
+import com.example.TaskListAPI.exception.TaskVersionConflictException;
+import com.example.TaskListAPI.ingest.TaskIngestionQueue;
 import com.example.TaskListAPI.mapper.TaskMapper;
 import com.example.TaskListAPI.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +66,21 @@ class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private TaskCache taskCache;
+
+    @Mock
+    private TaskIngestionQueue taskIngestionQueue;
+
+    @Mock
+    private TaskChangeFeed taskChangeFeed;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -68,8 +116,13 @@ class TaskServiceTest {
             Status.PENDING,
             Task.Priority.MEDIUM,
             java.time.LocalDateTime.now(),
-            java.time.LocalDateTime.now()
+            java.time.LocalDateTime.now(),
+            0L
         );
+
+        // The cache is exercised in TaskCacheTest; here it always misses
+        lenient().when(taskCache.get(any(), any())).thenAnswer(invocation ->
+            invocation.<Function<UUID, TaskResponse>>getArgument(1).apply(invocation.getArgument(0)));
     }
 
     @Test
@@ -95,11 +148,74 @@ class TaskServiceTest {
     }
 
     @Test
-    void getTaskById_ShouldReturnTaskResponse_WhenTaskExists() {
+    void submitTask_ShouldQueueTaskUnderReturnedId() {
+        // When
+        UUID id = taskService.submitTask(taskRequest);
+
+        // Then
+        assertThat(id).isNotNull();
+        verify(taskIngestionQueue).submit(id, taskRequest);
+        verify(taskRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createTasks_ShouldInsertValidTasksAndReportInvalidOnes() {
         // Given
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        TaskRequest invalidRequest = new TaskRequest();
+        when(taskMapper.toEntity(taskRequest)).thenReturn(task);
+        when(taskRepository.saveAll(List.of(task))).thenReturn(List.of(task));
         when(taskMapper.toResponse(task)).thenReturn(taskResponse);
 
+        // When
+        TaskBatchResponse result = taskService.createTasks(List.of(taskRequest, invalidRequest));
+
+        // Then
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getOutcome()).isEqualTo(TaskBatchItemResult.Outcome.CREATED);
+        assertThat(result.getResults().get(0).getTask()).isEqualTo(taskResponse);
+        assertThat(result.getResults().get(1).getOutcome()).isEqualTo(TaskBatchItemResult.Outcome.INVALID);
+        assertThat(result.getResults().get(1).getErrors()).containsKeys("title", "status", "priority");
+
+        verify(taskMapper, never()).toEntity(invalidRequest);
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void createTasks_ShouldFlushOncePerChunk() {
+        // Given
+        int size = TaskService.INSERT_CHUNK_SIZE * 2 + 1;
+        List<TaskRequest> requests = Collections.nCopies(size, taskRequest);
+        when(taskMapper.toEntity(taskRequest)).thenAnswer(invocation -> new Task());
+        when(taskRepository.saveAll(any())).thenAnswer(invocation -> new ArrayList<Task>(invocation.getArgument(0)));
+
+        // When
+        TaskBatchResponse result = taskService.createTasks(requests);
+
+        // Then
+        assertThat(result.getCreated()).isEqualTo(size);
+        verify(taskRepository, times(3)).saveAll(any());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void createTasks_ShouldThrowBatchTooLargeException_WhenBatchExceedsLimit() {
+        // Given
+        List<TaskRequest> requests = Collections.nCopies(TaskService.MAX_BATCH_SIZE + 1, taskRequest);
+
+        // When & Then
+        assertThrows(BatchTooLargeException.class, () -> taskService.createTasks(requests));
+
+        verify(taskRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void getTaskById_ShouldReturnTaskResponse_WhenTaskExists() {
+        // Given
+        when(taskRepository.findResponseById(taskId)).thenReturn(Optional.of(taskResponse));
+
         // When
         TaskResponse result = taskService.getTaskById(taskId);
 
@@ -107,58 +223,192 @@ class TaskServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(taskId);
 
-        verify(taskRepository).findById(taskId);
-        verify(taskMapper).toResponse(task);
+        verify(taskRepository).findResponseById(taskId);
+        verify(taskRepository, never()).findById(any());
+        verifyNoInteractions(taskMapper);
     }
 
     @Test
     void getTaskById_ShouldThrowTaskNotFoundException_WhenTaskDoesNotExist() {
         // Given
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.findResponseById(taskId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(taskId));
 
-        verify(taskRepository).findById(taskId);
-        verify(taskMapper, never()).toResponse(any());
+        verify(taskRepository).findResponseById(taskId);
+    }
+
+    @Test
+    void getAllTasks_ShouldReturnFirstPage() {
+        // Given
+        List<TaskResponse> tasks = List.of(taskResponse);
+
+        when(taskRepository.findFirstPage(TaskService.DEFAULT_PAGE_SIZE + 1)).thenReturn(tasks);
+
+        // When
+        TaskPageResponse result = taskService.getAllTasks(null, TaskService.DEFAULT_PAGE_SIZE, TaskFields.ALL);
+
+        // Then
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getId()).isEqualTo(taskId);
+        assertThat(result.getNextCursor()).isNull();
+
+        verify(taskRepository).findFirstPage(TaskService.DEFAULT_PAGE_SIZE + 1);
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void getAllTasks_ShouldReturnNextCursor_WhenMoreTasksExist() {
+        // Given
+        TaskResponse extraTask = new TaskResponse();
+        extraTask.setId(UUID.randomUUID());
+
+        when(taskRepository.findFirstPage(2)).thenReturn(List.of(taskResponse, extraTask));
+
+        // When
+        TaskPageResponse result = taskService.getAllTasks(null, 1, TaskFields.ALL);
+
+        // Then
+        assertThat(result.getItems()).containsExactly(taskResponse);
+        assertThat(result.getLimit()).isEqualTo(1);
+        TaskCursor nextCursor = TaskCursor.decode(result.getNextCursor());
+        assertThat(nextCursor.id()).isEqualTo(taskId);
+        assertThat(nextCursor.createdAt()).isEqualTo(taskResponse.getCreatedAt());
     }
 
     @Test
-    void getAllTasks_ShouldReturnAllTasks() {
+    void getAllTasks_ShouldSeekPastCursor_WhenCursorGiven() {
         // Given
-        List<Task> tasks = List.of(task);
+        LocalDateTime createdAt = LocalDateTime.now();
+        String cursor = new TaskCursor(createdAt, taskId, null, null).encode();
+
+        when(taskRepository.findPageAfter(createdAt, taskId, 11)).thenReturn(List.of());
 
-        when(taskRepository.findAll()).thenReturn(tasks);
+        // When
+        TaskPageResponse result = taskService.getAllTasks(cursor, 10, TaskFields.ALL);
+
+        // Then
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+
+        verify(taskRepository).findPageAfter(createdAt, taskId, 11);
+    }
+
+    @Test
+    void getAllTasks_ShouldSelectRequestedFieldsAndCursorKey_WhenFieldsGiven() {
+        // Given
+        TaskFields fields = TaskFields.parse("title,status");
+        TaskFields selected = TaskFields.parse("title,status,createdAt");
+
+        when(taskRepository.findResponses(selected, TaskRepository.FIRST_PAGE, Map.of("limit", 11)))
+            .thenReturn(List.of(taskResponse));
+
+        // When
+        TaskPageResponse result = taskService.getAllTasks(null, 10, fields);
+
+        // Then
+        assertThat(result.getItems()).containsExactly(taskResponse);
+        verify(taskRepository, never()).findFirstPage(anyInt());
+    }
+
+    @Test
+    void getAllTasks_ShouldClampLimit() {
+        // When
+        taskService.getAllTasks(null, 100_000, TaskFields.ALL);
+
+        // Then
+        verify(taskRepository).findFirstPage(TaskService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void getAllTasks_ShouldThrowInvalidCursorException_WhenCursorIsMalformed() {
+        // When & Then
+        assertThrows(InvalidCursorException.class, () -> taskService.getAllTasks("not-a-cursor", 10, TaskFields.ALL));
+
+        verify(taskRepository, never()).findPageAfter(any(), any(), anyInt());
+    }
+
+    @Test
+    void exportTasks_ShouldWriteEachTaskAndDetachIt() {
+        // Given
+        when(taskRepository.streamAll()).thenReturn(Stream.of(task));
         when(taskMapper.toResponse(task)).thenReturn(taskResponse);
+        List<TaskResponse> written = new ArrayList<>();
 
         // When
-        List<TaskResponse> result = taskService.getAllTasks();
+        taskService.exportTasks(written::add);
 
         // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getId()).isEqualTo(taskId);
+        assertThat(written).containsExactly(taskResponse);
 
-        verify(taskRepository).findAll();
-        verify(taskMapper).toResponse(task);
+        var inOrder = inOrder(taskMapper, entityManager);
+        inOrder.verify(taskMapper).toResponse(task);
+        inOrder.verify(entityManager).detach(task);
     }
 
     @Test
     void getTasksByStatus_ShouldReturnTasksWithGivenStatus() {
         // Given
         Status status = Status.PENDING;
-        List<Task> tasks = List.of(task);
-        when(taskRepository.findByStatusOrderByPriorityDesc(status)).thenReturn(tasks);
-        when(taskMapper.toResponse(task)).thenReturn(taskResponse);
+        List<TaskResponse> tasks = List.of(taskResponse);
+        when(taskRepository.findFirstPageByStatus(status, 11)).thenReturn(tasks);
 
         // When
-        List<TaskResponse> result = taskService.getTasksByStatus(status);
+        TaskPageResponse result = taskService.getTasksByStatus(status, null, 10, TaskFields.ALL);
 
         // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getStatus()).isEqualTo(status);
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getStatus()).isEqualTo(status);
 
-        verify(taskRepository).findByStatusOrderByPriorityDesc(status);
-        verify(taskMapper).toResponse(task);
+        verify(taskRepository).findFirstPageByStatus(status, 11);
+    }
+
+    @Test
+    void getTasksByStatus_ShouldSeekPastPriorityAndCreationTime_WhenCursorGiven() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.now();
+        String cursor = new TaskCursor(createdAt, taskId, Task.Priority.HIGH, null).encode();
+
+        TaskResponse sameGroup = new TaskResponse();
+        when(taskRepository.findPageByStatusWithinPriority(Status.PENDING, Task.Priority.HIGH, createdAt, taskId, 11))
+            .thenReturn(List.of(sameGroup));
+        when(taskRepository.findPageByStatusBelowPriority(Status.PENDING, Task.Priority.HIGH, 10))
+            .thenReturn(List.of(taskResponse));
+
+        // When
+        TaskPageResponse result = taskService.getTasksByStatus(Status.PENDING, cursor, 10, TaskFields.ALL);
+
+        // Then
+        assertThat(result.getItems()).containsExactly(sameGroup, taskResponse);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTasksByStatus_ShouldNotQueryLowerPriorities_WhenCursorGroupFillsThePage() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.now();
+        String cursor = new TaskCursor(createdAt, taskId, Task.Priority.HIGH, null).encode();
+        taskResponse.setPriority(Task.Priority.HIGH);
+        when(taskRepository.findPageByStatusWithinPriority(Status.PENDING, Task.Priority.HIGH, createdAt, taskId, 2))
+            .thenReturn(List.of(taskResponse, new TaskResponse()));
+
+        // When
+        TaskPageResponse result = taskService.getTasksByStatus(Status.PENDING, cursor, 1, TaskFields.ALL);
+
+        // Then
+        assertThat(result.getItems()).containsExactly(taskResponse);
+        assertThat(TaskCursor.decode(result.getNextCursor()).priority()).isEqualTo(Task.Priority.HIGH);
+        verify(taskRepository, never()).findPageByStatusBelowPriority(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTasksByStatus_ShouldThrowInvalidCursorException_WhenCursorHasNoPriority() {
+        // Given
+        String cursor = new TaskCursor(LocalDateTime.now(), taskId, null, null).encode();
+
+        // When & Then
+        assertThrows(InvalidCursorException.class, () -> taskService.getTasksByStatus(Status.PENDING, cursor, 10, TaskFields.ALL));
     }
 
     @Test
@@ -172,34 +422,45 @@ class TaskServiceTest {
             Task.Priority.HIGH
         );
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.toResponse(task)).thenReturn(taskResponse);
+        when(taskRepository.updateIfVersionMatches(taskId, null, "Updated Task", "Updated Description",
+            updatedRequest.getDueDate(), Status.IN_PROGRESS, Task.Priority.HIGH)).thenReturn(1);
+        when(taskRepository.findResponseById(taskId)).thenReturn(Optional.of(taskResponse));
 
         // When
-        TaskResponse result = taskService.updateTask(taskId, updatedRequest);
+        TaskResponse result = taskService.updateTask(taskId, updatedRequest, null);
 
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(taskId);
 
-        verify(taskRepository).findById(taskId);
-        verify(taskMapper).updateEntity(task, updatedRequest);
-        verify(taskRepository).save(task);
-        verify(taskMapper).toResponse(task);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any());
+        verify(taskCache).invalidate(taskId);
     }
 
     @Test
     void updateTask_ShouldThrowTaskNotFoundException_WhenTaskDoesNotExist() {
         // Given
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.updateIfVersionMatches(eq(taskId), any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(taskRepository.existsById(taskId)).thenReturn(false);
 
         // When & Then
-        assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(taskId, taskRequest));
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(taskId, taskRequest, null));
 
-        verify(taskRepository).findById(taskId);
-        verify(taskMapper, never()).updateEntity(any(), any());
-        verify(taskRepository, never()).save(any());
+        verify(taskCache, never()).invalidate(any());
+    }
+
+    @Test
+    void updateTask_ShouldThrowTaskVersionConflictException_WhenVersionHasMoved() {
+        // Given
+        when(taskRepository.updateIfVersionMatches(eq(taskId), eq(3L), any(), any(), any(), any(), any())).thenReturn(0);
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+
+        // When & Then
+        assertThrows(TaskVersionConflictException.class, () -> taskService.updateTask(taskId, taskRequest, 3L));
+
+        verify(taskRepository, never()).findResponseById(any());
+        verify(taskCache, never()).invalidate(any());
     }
 
     @Test
@@ -213,6 +474,9 @@ class TaskServiceTest {
         // Then
         verify(taskRepository).existsById(taskId);
         verify(taskRepository).deleteById(taskId);
+        verify(taskCache).invalidate(taskId);
+        verify(taskChangeFeed).publish(argThat((TaskChangeEvent event) ->
+            event.getType() == TaskChangeEvent.Type.DELETED && event.getTaskId().equals(taskId)));
     }
 
     @Test
@@ -231,68 +495,252 @@ class TaskServiceTest {
     void searchTasks_ShouldReturnTasksContainingKeyword() {
         // Given
         String keyword = "test";
-        when(taskRepository.findByKeyword(keyword)).thenReturn(List.of(task));
-        when(taskMapper.toResponse(task)).thenReturn(taskResponse);
+        TaskRepository.SearchHit hit = searchHit(taskId, 0.5f);
+        when(taskRepository.searchFirstPage(keyword, 0f, 11)).thenReturn(List.of(hit));
+        when(taskRepository.findResponsesByIdIn(List.of(taskId))).thenReturn(List.of(taskResponse));
 
         // When
-        List<TaskResponse> result = taskService.searchTasks(keyword);
+        TaskPageResponse result = taskService.searchTasks(keyword, null, null, 10, TaskFields.ALL);
 
         // Then
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
 
-        verify(taskRepository).findByKeyword(keyword);
-        verify(taskMapper).toResponse(task);
+        verify(taskRepository).searchFirstPage(keyword, 0f, 11);
+    }
+
+    @Test
+    void searchTasks_ShouldKeepRankOrderAndReturnRankCursor_WhenMoreHitsExist() {
+        // Given
+        TaskResponse secondResponse = new TaskResponse();
+        secondResponse.setId(UUID.randomUUID());
+        List<TaskRepository.SearchHit> hits = List.of(
+            searchHit(secondResponse.getId(), 0.9f), searchHit(taskId, 0.5f), searchHit(UUID.randomUUID(), 0.1f));
+        when(taskRepository.searchFirstPage("test", 0.05f, 3)).thenReturn(hits);
+        when(taskRepository.findResponsesByIdIn(List.of(secondResponse.getId(), taskId)))
+            .thenReturn(List.of(taskResponse, secondResponse));
+
+        // When
+        TaskPageResponse result = taskService.searchTasks("test", 0.05f, null, 2, TaskFields.ALL);
+
+        // Then
+        assertThat(result.getItems()).containsExactly(secondResponse, taskResponse);
+        TaskCursor nextCursor = TaskCursor.decode(result.getNextCursor());
+        assertThat(nextCursor.rank()).isEqualTo(0.5f);
+        assertThat(nextCursor.id()).isEqualTo(taskId);
+    }
+
+    @Test
+    void searchTasks_ShouldSeekBelowRankCursor_WhenCursorGiven() {
+        // Given
+        String cursor = TaskCursor.ranked(0.25f, taskId).encode();
+
+        // When
+        taskService.searchTasks("test", null, cursor, 10, TaskFields.ALL);
+
+        // Then
+        verify(taskRepository).searchPageAfter("test", 0f, 0.25f, taskId, 11);
+    }
+
+    private static TaskRepository.SearchHit searchHit(UUID id, float rank) {
+        return new TaskRepository.SearchHit() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public float getRank() {
+                return rank;
+            }
+        };
     }
 
     @Test
     void getOverdueTasks_ShouldReturnOverdueTasks() {
         // Given
-        List<Task> tasks = List.of(task);
+        List<TaskResponse> tasks = List.of(taskResponse);
 
-        when(taskRepository.findOverdueTasks(any(LocalDate.class))).thenReturn(tasks);
-        when(taskMapper.toResponse(task)).thenReturn(taskResponse);
+        when(taskRepository.findFirstOverduePage(any(LocalDate.class), eq(11))).thenReturn(tasks);
 
         // When
-        List<TaskResponse> result = taskService.getOverdueTasks();
+        TaskPageResponse result = taskService.getOverdueTasks(null, 10, TaskFields.ALL);
 
         // Then
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
 
-        verify(taskRepository).findOverdueTasks(any(LocalDate.class));
-        verify(taskMapper).toResponse(task);
+        verify(taskRepository).findFirstOverduePage(any(LocalDate.class), eq(11));
+    }
+
+    @Test
+    void queryTasks_ShouldSelectSortKeysAndReturnSortableCursor_WhenMoreTasksExist() {
+        // Given
+        TaskResponse last = new TaskResponse(taskId, null, null, null, null, Task.Priority.HIGH,
+            LocalDateTime.now(), LocalDateTime.now(), 0L);
+        when(taskRepository.findResponses(any(TaskFields.class), any(Specification.class), any(Sort.class), eq(2)))
+            .thenReturn(List.of(last, new TaskResponse()));
+        TaskQuery query = new TaskQuery();
+        query.setStatus(Set.of(Status.PENDING, Status.IN_PROGRESS));
+        query.setSort(List.of("-priority", "dueDate"));
+
+        // When
+        TaskPageResponse result = taskService.queryTasks(query, null, 1, TaskFields.parse("title"));
+
+        // Then
+        assertThat(result.getItems()).containsExactly(last);
+        TaskCursor next = TaskCursor.decode(result.getNextCursor());
+        assertThat(next.hasSortableKeys()).isTrue();
+        assertThat(next.dueDate()).isNull();
+        verify(taskRepository).findResponses(
+            eq(TaskFields.parse("title,createdAt,updatedAt,dueDate,priority")), any(Specification.class),
+            eq(Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("dueDate"), Sort.Order.asc("id"))), eq(2));
+    }
+
+    @Test
+    void queryTasks_ShouldReadUndatedTasks_WhenDatedTasksRunOutBeforeThePageFills() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        String cursor = new TaskCursor(now, taskId, Task.Priority.LOW, null, now, LocalDate.now()).encode();
+        TaskResponse dated = new TaskResponse();
+        when(taskRepository.findResponses(any(TaskFields.class), any(Specification.class), any(Sort.class), eq(3)))
+            .thenReturn(List.of(dated));
+        when(taskRepository.findResponses(any(TaskFields.class), any(Specification.class), any(Sort.class), eq(2)))
+            .thenReturn(List.of(taskResponse));
+        TaskQuery query = new TaskQuery();
+        query.setSort(List.of("dueDate"));
+
+        // When
+        TaskPageResponse result = taskService.queryTasks(query, cursor, 2, TaskFields.ALL);
+
+        // Then
+        assertThat(result.getItems()).containsExactly(dated, taskResponse);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void queryTasks_ShouldThrowInvalidCursorException_WhenCursorHasNoSortKeys() {
+        // Given
+        String cursor = new TaskCursor(LocalDateTime.now(), taskId, null, null).encode();
+
+        // When & Then
+        assertThrows(InvalidCursorException.class, () -> taskService.queryTasks(new TaskQuery(), cursor, 10, TaskFields.ALL));
+    }
+
+    @Test
+    void queryTasks_ShouldThrowInvalidQueryException_WhenRangeIsReversed() {
+        // Given
+        TaskQuery query = new TaskQuery();
+        query.setDueFrom(LocalDate.now());
+        query.setDueTo(LocalDate.now().minusDays(1));
+
+        // When & Then
+        assertThrows(InvalidQueryException.class, () -> taskService.queryTasks(query, null, 10, TaskFields.ALL));
+
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
     void updateTaskStatus_ShouldReturnUpdatedTaskResponse_WhenTaskExists() {
         // Given
         Status newStatus = Status.COMPLETED;
+        TaskRepository.TaskRow row = mock(TaskRepository.TaskRow.class);
+        when(row.getId()).thenReturn(taskId);
+        when(row.getStatus()).thenReturn(newStatus);
+        when(row.getPriorityRank()).thenReturn(Task.Priority.HIGH.getRank());
+        when(row.getVersion()).thenReturn(1L);
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.toResponse(task)).thenReturn(taskResponse);
+        when(taskRepository.updateStatusReturning(taskId, 0L, "COMPLETED")).thenReturn(Optional.of(row));
 
         // When
-        TaskResponse result = taskService.updateTaskStatus(taskId, newStatus);
+        TaskResponse result = taskService.updateTaskStatus(taskId, newStatus, 0L);
 
         // Then
-        assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(taskId);
+        assertThat(result.getStatus()).isEqualTo(newStatus);
+        assertThat(result.getPriority()).isEqualTo(Task.Priority.HIGH);
+        assertThat(result.getVersion()).isEqualTo(1L);
 
-        verify(taskRepository).findById(taskId);
-        verify(taskRepository).save(task);
-        verify(taskMapper).toResponse(task);
+        verify(taskRepository, never()).findResponseById(any());
+        verify(taskCache).invalidate(taskId);
     }
 
     @Test
     void updateTaskStatus_ShouldThrowTaskNotFoundException_WhenTaskDoesNotExist() {
         // Given
         Status newStatus = Status.COMPLETED;
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.updateStatusReturning(taskId, null, "COMPLETED")).thenReturn(Optional.empty());
+        when(taskRepository.existsById(taskId)).thenReturn(false);
 
         // When & Then
-        assertThrows(TaskNotFoundException.class, () -> taskService.updateTaskStatus(taskId, newStatus));
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTaskStatus(taskId, newStatus, null));
 
-        verify(taskRepository).findById(taskId);
-        verify(taskRepository, never()).save(any());
+        verify(taskCache, never()).invalidate(any());
+    }
+
+    @Test
+    void updateTaskStatuses_ShouldIssueOneUpdatePerTargetStatus_WhenGivenChanges() {
+        // Given
+        UUID secondId = UUID.randomUUID();
+        UUID thirdId = UUID.randomUUID();
+        TaskStatusBulkRequest request = new TaskStatusBulkRequest(List.of(
+            new TaskStatusChange(taskId, Status.COMPLETED),
+            new TaskStatusChange(secondId, Status.CANCELLED),
+            new TaskStatusChange(thirdId, Status.COMPLETED)));
+        when(taskRepository.updateStatusByIdIn(List.of(taskId, thirdId), "COMPLETED"))
+            .thenReturn(List.of(taskVersion(taskId, 1), taskVersion(thirdId, 4)));
+        when(taskRepository.updateStatusByIdIn(List.of(secondId), "CANCELLED")).thenReturn(List.of());
+
+        // When
+        TaskStatusBulkResponse result = taskService.updateTaskStatuses(request);
+
+        // Then
+        assertThat(result.getUpdated()).isEqualTo(2);
+        verify(taskRepository, times(2)).updateStatusByIdIn(any(), any());
+        verify(taskCache).invalidateAll();
+        verify(taskChangeFeed).publish(argThat((List<TaskChangeEvent> events) -> events.size() == 2
+            && events.get(1).getTaskId().equals(thirdId) && events.get(1).getVersion() == 4));
+    }
+
+    @Test
+    void updateTaskStatuses_ShouldUpdateMatchingTasks_WhenGivenFilter() {
+        // Given
+        TaskStatusBulkRequest request = new TaskStatusBulkRequest(
+            new TaskStatusFilter(Status.PENDING, true), Status.CANCELLED);
+        when(taskRepository.updateStatusMatching("PENDING", true, LocalDate.now(), "CANCELLED")).thenReturn(List.of());
+
+        // When
+        TaskStatusBulkResponse result = taskService.updateTaskStatuses(request);
+
+        // Then
+        assertThat(result.getUpdated()).isZero();
+        verify(taskCache, never()).invalidateAll();
+        verifyNoInteractions(taskChangeFeed);
+    }
+
+    @Test
+    void updateTaskStatuses_ShouldThrowBatchTooLargeException_WhenOverLimit() {
+        // Given
+        List<TaskStatusChange> changes = Collections.nCopies(TaskService.MAX_BATCH_SIZE + 1,
+            new TaskStatusChange(taskId, Status.COMPLETED));
+
+        // When & Then
+        assertThrows(BatchTooLargeException.class,
+            () -> taskService.updateTaskStatuses(new TaskStatusBulkRequest(changes)));
+
+        verify(taskRepository, never()).updateStatusByIdIn(any(), any());
+    }
+
+    private static TaskRepository.TaskVersion taskVersion(UUID id, long version) {
+        return new TaskRepository.TaskVersion() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+        };
     }
 }
@@ -0,0 +1,114 @@
+package com.example.TaskListAPI.sync;
+
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskSyncResponse;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskSyncIntegrationTest {
+
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<UUID> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllById(created);
+    }
+
+    @Test
+    void syncTasks_ShouldReturnNewChanges_WhileLongReadOnlyTransactionIsOpen() throws Exception {
+        // Given - a transaction that only reads and stays open, like the NDJSON export
+        String token = syncToEnd(null).token();
+        try (Connection export = dataSource.getConnection()) {
+            export.setAutoCommit(false);
+            try (Statement statement = export.createStatement()) {
+                statement.execute("SELECT count(*) FROM tasks");
+            }
+            UUID id = save("Written during an export");
+
+            // When
+            Synced synced = syncToEnd(token);
+
+            // Then
+            assertThat(synced.ids()).contains(id);
+            export.rollback();
+        }
+    }
+
+    @Test
+    void syncTasks_ShouldHoldBackUncommittedWrite_AndReturnItOnceCommitted() throws Exception {
+        // Given - a write that has started but not committed
+        String token = syncToEnd(null).token();
+        UUID pending = UUID.randomUUID();
+        try (Connection writer = dataSource.getConnection()) {
+            writer.setAutoCommit(false);
+            try (PreparedStatement insert = writer.prepareStatement(
+                    "INSERT INTO tasks (id, title, status, priority_rank) VALUES (?, 'Committed late', 'PENDING', 1)")) {
+                insert.setObject(1, pending);
+                insert.executeUpdate();
+            }
+            created.add(pending);
+
+            // When
+            Synced whileWriting = syncToEnd(token);
+            writer.commit();
+            Synced afterCommit = syncToEnd(whileWriting.token());
+
+            // Then - the token handed out meanwhile does not move past the write
+            assertThat(whileWriting.ids()).doesNotContain(pending);
+            assertThat(afterCommit.ids()).contains(pending);
+        }
+    }
+
+    private UUID save(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDueDate(LocalDate.now().plusDays(1));
+        task.setStatus(Status.PENDING);
+        task.setPriority(Task.Priority.LOW);
+        UUID id = taskRepository.save(task).getId();
+        created.add(id);
+        return id;
+    }
+
+    private Synced syncToEnd(String token) {
+        List<UUID> ids = new ArrayList<>();
+        TaskSyncResponse page;
+        do {
+            page = taskSyncService.syncTasks(token, 500);
+            page.getTasks().stream().map(TaskResponse::getId).forEach(ids::add);
+            token = page.getToken();
+        } while (page.isHasMore());
+        return new Synced(token, ids);
+    }
+
+    private record Synced(String token, List<UUID> ids) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.TaskListAPI.sync;
+
+import com.example.TaskListAPI.dto.ChangedTask;
+import com.example.TaskListAPI.dto.SyncToken;
+import com.example.TaskListAPI.dto.TaskResponse;
+import com.example.TaskListAPI.dto.TaskSyncResponse;
+import com.example.TaskListAPI.entity.Task;
+import com.example.TaskListAPI.enums.Status;
+import com.example.TaskListAPI.exception.SyncTokenExpiredException;
+import com.example.TaskListAPI.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSyncServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskSyncService taskSyncService;
+    private LocalDateTime now;
+    private long watermark;
+
+    @BeforeEach
+    void setUp() {
+        taskSyncService = new TaskSyncService(taskRepository, Duration.ofDays(30));
+        now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        watermark = 5000;
+        when(taskRepository.findSyncWatermark()).thenReturn(watermark(watermark, now));
+    }
+
+    @Test
+    void syncTasks_ShouldReturnEveryTaskWithoutTombstones_WhenNoToken() {
+        // Given
+        ChangedTask task = task(watermark - 300);
+        when(taskRepository.findChangedBefore(watermark, 11)).thenReturn(List.of(task));
+
+        // When
+        TaskSyncResponse result = taskSyncService.syncTasks(null, 10);
+
+        // Then
+        assertThat(result.getTasks()).containsExactly(task.task());
+        assertThat(result.getDeleted()).isEmpty();
+        assertThat(result.isHasMore()).isFalse();
+        assertThat(SyncToken.decode(result.getToken())).isEqualTo(SyncToken.caughtUp(watermark, now));
+        verify(taskRepository, never()).findTombstonesBetween(anyLong(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void syncTasks_ShouldMergeChangesAndDeletionsInChangeOrder() {
+        // Given
+        LocalDateTime lastSync = now.minusMinutes(10);
+        SyncToken since = SyncToken.caughtUp(watermark - 100, lastSync);
+        ChangedTask first = task(watermark - 90);
+        ChangedTask third = task(watermark - 50);
+        UUID deletedId = UUID.randomUUID();
+        when(taskRepository.findChangedBetween(since.changeXid(), since.id(), watermark, 3))
+            .thenReturn(List.of(first, third));
+        when(taskRepository.findTombstonesBetween(since.changeXid(), since.id(), watermark, 3))
+            .thenReturn(List.of(tombstone(deletedId, watermark - 70)));
+
+        // When
+        TaskSyncResponse result = taskSyncService.syncTasks(since.encode(), 2);
+
+        // Then
+        assertThat(result.getTasks()).containsExactly(first.task());
+        assertThat(result.getDeleted()).containsExactly(deletedId);
+        assertThat(result.isHasMore()).isTrue();
+        assertThat(SyncToken.decode(result.getToken()))
+            .isEqualTo(new SyncToken(watermark - 70, deletedId, null, lastSync));
+    }
+
+    @Test
+    void syncTasks_ShouldSkipTombstonesFromBeforeFullSyncStarted() {
+        // Given
+        long startedAt = watermark - 10;
+        SyncToken since = new SyncToken(startedAt - 4000, UUID.randomUUID(), startedAt, now.minusMinutes(1));
+        when(taskRepository.findChangedBetween(since.changeXid(), since.id(), watermark, 11)).thenReturn(List.of());
+        when(taskRepository.findTombstonesBetween(startedAt, SyncToken.NIL, watermark, 11)).thenReturn(List.of());
+
+        // When
+        TaskSyncResponse result = taskSyncService.syncTasks(since.encode(), 10);
+
+        // Then
+        assertThat(result.isHasMore()).isFalse();
+        verify(taskRepository).findTombstonesBetween(startedAt, SyncToken.NIL, watermark, 11);
+    }
+
+    @Test
+    void syncTasks_ShouldThrowSyncTokenExpiredException_WhenTokenIsOlderThanRetention() {
+        // Given
+        String since = SyncToken.caughtUp(watermark - 100, now.minusDays(31)).encode();
+
+        // When & Then
+        assertThrows(SyncTokenExpiredException.class, () -> taskSyncService.syncTasks(since, 10));
+
+        verify(taskRepository, never()).findChangedBetween(anyLong(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void syncTasks_ShouldThrowSyncTokenExpiredException_WhenTokenIsOrderedByTime() {
+        // Given: a token from before sync was ordered by transaction id
+        String since = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            ("at=" + now.minusMinutes(5) + ";id=" + SyncToken.NIL).getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThrows(SyncTokenExpiredException.class, () -> taskSyncService.syncTasks(since, 10));
+    }
+
+    private static ChangedTask task(long changeXid) {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 6, 1, 11, 0);
+        return new ChangedTask(changeXid, new TaskResponse(UUID.randomUUID(), "Task", null, null, Status.PENDING,
+            Task.Priority.LOW, updatedAt, updatedAt, 0L));
+    }
+
+    private static TaskRepository.SyncWatermark watermark(long xid, LocalDateTime takenAt) {
+        return new TaskRepository.SyncWatermark() {
+            @Override
+            public long getXid() {
+                return xid;
+            }
+
+            @Override
+            public LocalDateTime getTakenAt() {
+                return takenAt;
+            }
+        };
+    }
+
+    private static TaskRepository.Tombstone tombstone(UUID id, long changeXid) {
+        return new TaskRepository.Tombstone() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public long getChangeXid() {
+                return changeXid;
+            }
+        };
+    }
+}